@@ -0,0 +1,90 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.bill.exception.UnexpectedPaymentException;
+import com.zenika.poc.share.Snapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.zenika.poc.bill.Bill.createBill;
+import static com.zenika.poc.bill.Bill.loadBill;
+import static com.zenika.poc.share.Events.emptyEvents;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int itemCount;
+
+    private Order round;
+
+    private Order single;
+
+    private Snapshot<BillState> openBill;
+
+    @Setup
+    public void setUp() {
+        Map<Item, Integer> items = new HashMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.put(new Item("item-" + i, 1.5 + i), 1);
+        }
+        round = new Order(items);
+        single = new Order(new Item("item-0", 1.5), 1);
+
+        Bill bill = createBill();
+        bill.order(round);
+        bill.order(round);
+        bill.pay(round);
+        openBill = bill.snapshot();
+    }
+
+    @Benchmark
+    public Bill order() {
+        Bill bill = loadBill(openBill, emptyEvents());
+        bill.order(round);
+        return bill;
+    }
+
+    @Benchmark
+    public Bill orderSingleItem() {
+        Bill bill = loadBill(openBill, emptyEvents());
+        bill.order(single);
+        return bill;
+    }
+
+    @Benchmark
+    public Bill orderAndPay() {
+        Bill bill = loadBill(openBill, emptyEvents());
+        bill.order(round);
+        bill.pay(round);
+        return bill;
+    }
+
+    @Benchmark
+    public Object rejectedPayment() {
+        Bill bill = loadBill(openBill, emptyEvents());
+        try {
+            bill.pay(round.add(round));
+            return bill;
+        } catch (UnexpectedPaymentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.zenika.poc.bill;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.zenika.poc.bill.BillEvent.OrderTaken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillEventCodecBenchmark {
+
+    private static final Type ITEMS = new TypeToken<Map<Item, Integer>>() {
+    }.getType();
+
+    private final BillEventCodec codec = new BillEventCodec();
+
+    private final Gson gson = new GsonBuilder().enableComplexMapKeySerialization().create();
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    private OrderTaken event;
+
+    private ByteBuffer encoded;
+
+    private Map<Item, Integer> items;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        items = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            items.put(new Item("item-" + i, 1.5 + i), i + 1);
+        }
+        event = new OrderTaken(aggregateId("2f1b6c1e-8a4f-4d6e-9a57-1f3c1d1f0b2a"), new Order(items));
+
+        codec.encode(event, buffer);
+        buffer.flip();
+        encoded = ByteBuffer.allocate(buffer.remaining()).put(buffer);
+        encoded.flip();
+        json = gson.toJson(items);
+    }
+
+    @Benchmark
+    public ByteBuffer binaryEncode() {
+        buffer.clear();
+        codec.encode(event, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public BillEvent binaryDecode() {
+        return codec.decode(event.aggregateId, encoded.duplicate());
+    }
+
+    @Benchmark
+    public String gsonEncode() {
+        Map<Item, Integer> items = new HashMap<>();
+        event.orderedItem.forEach(items::put);
+        return gson.toJson(items);
+    }
+
+    @Benchmark
+    public OrderTaken gsonDecode() {
+        Map<Item, Integer> items = gson.fromJson(json, ITEMS);
+        return new OrderTaken(event.aggregateId, new Order(items));
+    }
+}
@@ -0,0 +1,127 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.EventRepository;
+import com.zenika.poc.share.Events;
+import com.zenika.poc.share.InMemoryEventRepository;
+import com.zenika.poc.share.OffHeapEventRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.zenika.poc.bill.Bill.createBill;
+import static com.zenika.poc.bill.Order.order;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g", "-XX:MaxDirectMemorySize=4g"})
+public class BillEventStoreFootprintBenchmark {
+
+    private static final int EVENTS_PER_BILL = 100;
+
+    private static final Item[] MENU = new Item[20];
+
+    static {
+        for (int i = 0; i < MENU.length; i++) {
+            MENU[i] = new Item("item-" + i, 1.5 + i);
+        }
+    }
+
+    @Param({"heap", "offHeap"})
+    public String store;
+
+    @Param({"1000000", "4000000"})
+    public int eventCount;
+
+    private EventRepository<BillEvent> repository;
+
+    private AggregateId[] billIds;
+
+    private long retainedHeap;
+
+    private long offHeap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long baseline = usedHeapAfterGc();
+        repository = "heap".equals(store) ? new InMemoryEventRepository<>() : new OffHeapEventRepository<>(new BillEventCodec());
+        billIds = new AggregateId[eventCount / EVENTS_PER_BILL];
+        for (int b = 0; b < billIds.length; b++) {
+            Bill bill = createBill();
+            for (int i = 1; i < EVENTS_PER_BILL; i++) {
+                if (i % 2 == 1) {
+                    bill.order(order(MENU[(b + i) % MENU.length], 1 + i % 3));
+                } else {
+                    bill.pay(order(MENU[(b + i - 1) % MENU.length], 1 + (i - 1) % 3));
+                }
+            }
+            repository.addEvents(bill.events());
+            billIds[b] = bill.id;
+        }
+        retainedHeap = usedHeapAfterGc() - baseline;
+        offHeap = repository instanceof OffHeapEventRepository ? ((OffHeapEventRepository<?>) repository).allocatedBytes() : 0;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long retainedHeapMegabytes;
+
+        public long offHeapMegabytes;
+
+        public long internerHits;
+
+        public long internerMisses;
+
+        @TearDown(Level.Iteration)
+        public void record(BillEventStoreFootprintBenchmark benchmark) {
+            retainedHeapMegabytes = benchmark.retainedHeap >> 20;
+            offHeapMegabytes = benchmark.offHeap >> 20;
+            internerHits = Item.interner().hits();
+            internerMisses = Item.interner().misses();
+        }
+    }
+
+    @Benchmark
+    public void fullGc(Footprint footprint) {
+        System.gc();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Bill loadBill(Footprint footprint) {
+        AggregateId billId = billIds[ThreadLocalRandom.current().nextInt(billIds.length)];
+        return Bill.loadBill(repository.events(billId));
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
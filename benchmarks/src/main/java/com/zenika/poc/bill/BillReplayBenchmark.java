@@ -0,0 +1,59 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.share.Events;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.zenika.poc.bill.Bill.createBill;
+import static com.zenika.poc.bill.Order.order;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BillReplayBenchmark {
+
+    private static final Item[] MENU = new Item[20];
+
+    static {
+        for (int i = 0; i < MENU.length; i++) {
+            MENU[i] = new Item("item-" + i, 1.5 + i);
+        }
+    }
+
+    @Param({"10", "1000", "100000"})
+    public int eventCount;
+
+    private Events<BillEvent> events;
+
+    @Setup
+    public void setUp() {
+        Bill bill = createBill();
+        for (int i = 1; i < eventCount; i++) {
+            Order round = order(MENU[i % MENU.length], 1);
+            if (i % 2 == 1) {
+                bill.order(round);
+            } else {
+                bill.pay(order(MENU[(i - 1) % MENU.length], 1));
+            }
+        }
+        events = bill.events();
+    }
+
+    @Benchmark
+    public Bill loadBill() {
+        return Bill.loadBill(events);
+    }
+}
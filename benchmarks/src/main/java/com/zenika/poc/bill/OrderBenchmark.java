@@ -0,0 +1,85 @@
+package com.zenika.poc.bill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int itemCount;
+
+    private Order order;
+
+    private Order round;
+
+    private Order tooMuch;
+
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        Map<Item, Integer> items = new HashMap<>();
+        Map<Item, Integer> roundItems = new HashMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            Item item = new Item("item-" + i, 1.5 + i);
+            items.put(item, 3);
+            if (i % 5 == 0) {
+                roundItems.put(item, 1);
+            }
+        }
+        order = new Order(items);
+        round = new Order(roundItems);
+        item = new Item("item-0", 1.5);
+        tooMuch = round.add(item, 10);
+    }
+
+    @Benchmark
+    public Order addItem() {
+        return order.add(item, 1);
+    }
+
+    @Benchmark
+    public Order addOrder() {
+        return order.add(round);
+    }
+
+    @Benchmark
+    public Order removeOrder() {
+        return order.remove(round);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return order.contains(round);
+    }
+
+    @Benchmark
+    public boolean doesNotContain() {
+        return order.contains(tooMuch);
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return order.add(item, 1).remove(item, 1).equals(order);
+    }
+}
@@ -0,0 +1,71 @@
+package com.zenika.poc.item;
+
+import com.zenika.poc.share.Events;
+import com.zenika.poc.share.InMemoryEventRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.zenika.poc.item.Item.createStock;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ItemReplayBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int eventCount;
+
+    private Events<ItemEvent> events;
+
+    private InMemoryEventRepository<ItemEvent> repository;
+
+    @Setup
+    public void setUp() {
+        Item item = createStock("coffee", 10, 1.5);
+        for (int i = 1; i < eventCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    item.changePrice(1.5 + i % 10);
+                    break;
+                case 1:
+                case 2:
+                    item.add(2);
+                    break;
+                default:
+                    item.remove(1);
+                    break;
+            }
+        }
+        events = item.events();
+        repository = new InMemoryEventRepository<>();
+        repository.addEvents(events);
+    }
+
+    @Benchmark
+    public Item loadStock() {
+        return Item.loadStock(events);
+    }
+
+    @Benchmark
+    public Item readAndLoadStock() {
+        return Item.loadStock(repository.events(events.aggregateId()));
+    }
+
+    @Benchmark
+    public Item streamStock() {
+        return Item.loadStock(repository.eventStream(events.aggregateId()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.zenika.poc.share;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchEventConsumerBenchmark {
+
+    private static final AggregateId ID = randomAggregateId();
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final long CALL_OVERHEAD_TOKENS = 2_000;
+
+    private final EventConsumer perEventConsumer = event -> Blackhole.consumeCPU(CALL_OVERHEAD_TOKENS);
+
+    private final BatchEventConsumer batchConsumer = events -> Blackhole.consumeCPU(CALL_OVERHEAD_TOKENS + events.size());
+
+    private Events<BenchmarkEvent> perEventEvents;
+
+    private Events<BenchmarkEvent> batchEvents;
+
+    @Setup
+    public void setUp() {
+        EventDispatcher.addListener(perEventConsumer, "per_event");
+        EventDispatcher.addListener(batchConsumer, "batch");
+        perEventEvents = events("per_event");
+        batchEvents = events("batch");
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventDispatcher.removeListener(perEventConsumer);
+        EventDispatcher.removeListener(batchConsumer);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void perEventConsumer() {
+        EventDispatcher.sendEvents(perEventEvents);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void batchConsumer() {
+        EventDispatcher.sendEvents(batchEvents);
+    }
+
+    private static Events<BenchmarkEvent> events(String eventType) {
+        List<BenchmarkEvent> events = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(new BenchmarkEvent(ID, eventType));
+        }
+        return new Events<>(events);
+    }
+
+    private static class BenchmarkEvent extends Event {
+
+        private final String eventType;
+
+        private BenchmarkEvent(AggregateId aggregateId, String eventType) {
+            super(aggregateId);
+            this.eventType = eventType;
+        }
+
+        @Override
+        public String eventType() {
+            return eventType;
+        }
+    }
+}
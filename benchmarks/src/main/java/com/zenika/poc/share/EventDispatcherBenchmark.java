@@ -0,0 +1,60 @@
+package com.zenika.poc.share;
+
+import com.zenika.poc.share.EventsBenchmark.BenchmarkEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatcherBenchmark {
+
+    private static final AggregateId ID = randomAggregateId();
+
+    @Param({"1", "10", "100"})
+    public int listenerCount;
+
+    private final List<EventConsumer> listeners = new ArrayList<>();
+
+    private Events<BenchmarkEvent> events;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        for (int i = 0; i < listenerCount; i++) {
+            EventConsumer listener = blackhole::consume;
+            listeners.add(listener);
+            EventDispatcher.addListener(listener, "benchmark");
+        }
+        events = new Events<>(new BenchmarkEvent(ID), new BenchmarkEvent(ID), new BenchmarkEvent(ID));
+    }
+
+    @TearDown
+    public void tearDown() {
+        listeners.forEach(EventDispatcher::removeListener);
+    }
+
+    @Benchmark
+    public void sendEvents() {
+        EventDispatcher.sendEvents(events);
+    }
+}
@@ -0,0 +1,69 @@
+package com.zenika.poc.share;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventsBenchmark {
+
+    private static final AggregateId ID = randomAggregateId();
+
+    @Param({"1", "10", "1000"})
+    public int eventCount;
+
+    private List<BenchmarkEvent> events;
+
+    @Setup
+    public void setUp() {
+        events = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            events.add(new BenchmarkEvent(ID));
+        }
+    }
+
+    @Benchmark
+    public Events<BenchmarkEvent> fromList() {
+        return new Events<>(new ArrayList<>(events));
+    }
+
+    @Benchmark
+    public Events<BenchmarkEvent> byAdding() {
+        Events<BenchmarkEvent> result = Events.emptyEvents();
+        for (BenchmarkEvent event : events) {
+            result.add(event);
+        }
+        return result;
+    }
+
+    static class BenchmarkEvent extends Event {
+
+        BenchmarkEvent(AggregateId aggregateId) {
+            super(aggregateId);
+        }
+
+        @Override
+        public String eventType() {
+            return "benchmark";
+        }
+    }
+}
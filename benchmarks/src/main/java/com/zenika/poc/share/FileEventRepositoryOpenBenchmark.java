@@ -0,0 +1,101 @@
+package com.zenika.poc.share;
+
+import com.zenika.poc.share.EventsBenchmark.BenchmarkEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FileEventRepositoryOpenBenchmark {
+
+    private static final int EVENTS_PER_RECORD = 10;
+
+    private static final int AGGREGATES = 100_000;
+
+    private static final EventCodec<BenchmarkEvent> CODEC = new EventCodec<BenchmarkEvent>() {
+        @Override
+        public void encode(BenchmarkEvent event, ByteBuffer buffer) {
+        }
+
+        @Override
+        public BenchmarkEvent decode(AggregateId aggregateId, ByteBuffer buffer) {
+            return new BenchmarkEvent(aggregateId);
+        }
+    };
+
+    @Param({"1000000", "10000000"})
+    public int eventCount;
+
+    private Path directory;
+
+    private FileEventRepository<BenchmarkEvent> repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("open-benchmark");
+        FileEventRepository<BenchmarkEvent> writer = new FileEventRepository<>(directory, CODEC);
+        for (int record = 0; record < eventCount / EVENTS_PER_RECORD; record++) {
+            AggregateId aggregateId = aggregateId(0, record % AGGREGATES);
+            List<BenchmarkEvent> events = new ArrayList<>(EVENTS_PER_RECORD);
+            for (int i = 0; i < EVENTS_PER_RECORD; i++) {
+                events.add(new BenchmarkEvent(aggregateId));
+            }
+            writer.append(new Events<>(events), EventRepository.ANY_VERSION);
+        }
+        writer.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeRepository() {
+        if (repository != null) {
+            repository.close();
+            repository = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public FileEventRepository<BenchmarkEvent> open() {
+        repository = new FileEventRepository<>(directory, CODEC);
+        return repository;
+    }
+
+    @Benchmark
+    public Events<BenchmarkEvent> openAndRead() {
+        repository = new FileEventRepository<>(directory, CODEC);
+        return repository.events(aggregateId(0, 42));
+    }
+}
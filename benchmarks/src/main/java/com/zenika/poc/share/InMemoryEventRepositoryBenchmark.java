@@ -0,0 +1,61 @@
+package com.zenika.poc.share;
+
+import com.zenika.poc.share.EventsBenchmark.BenchmarkEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class InMemoryEventRepositoryBenchmark {
+
+    @Param({"true", "false"})
+    public boolean sharedStream;
+
+    private final AtomicInteger threads = new AtomicInteger();
+
+    private InMemoryEventRepository<BenchmarkEvent> repository;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        repository = new InMemoryEventRepository<>();
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private Events<BenchmarkEvent> events;
+
+        @Setup
+        public void setUp(InMemoryEventRepositoryBenchmark benchmark) {
+            AggregateId aggregateId = benchmark.sharedStream ? aggregateId(0, 0) : aggregateId(1, benchmark.threads.getAndIncrement());
+            events = singletonEvents(new BenchmarkEvent(aggregateId));
+        }
+    }
+
+    @Benchmark
+    public void addEvents(Writer writer) {
+        repository.addEvents(writer.events);
+    }
+}
@@ -0,0 +1,96 @@
+package com.zenika.poc.share;
+
+import com.zenika.poc.bill.Bill;
+import com.zenika.poc.bill.BillEvent;
+import com.zenika.poc.bill.Item;
+import com.zenika.poc.share.EventsBenchmark.BenchmarkEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static com.zenika.poc.bill.Bill.createBill;
+import static com.zenika.poc.bill.Order.order;
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final AggregateId ID = randomAggregateId();
+
+    @Param({"none", "inMemory"})
+    public String metrics;
+
+    private Events<BillEvent> billEvents;
+
+    private Events<BenchmarkEvent> events;
+
+    private InMemoryEventRepository<BenchmarkEvent> repository;
+
+    private EventConsumer listener;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        if (metrics.equals("inMemory")) {
+            MetricsProvider.useMetrics(new InMemoryMetrics());
+        } else {
+            MetricsProvider.useNoMetrics();
+        }
+
+        Bill bill = createBill();
+        for (int i = 0; i < 10; i++) {
+            bill.order(order(new Item("item-" + i, 1.5), 1));
+        }
+        billEvents = bill.events();
+        events = singletonEvents(new BenchmarkEvent(ID));
+        repository = new InMemoryEventRepository<>();
+        repository.addEvents(new Events<>(new BenchmarkEvent(ID), new BenchmarkEvent(ID), new BenchmarkEvent(ID)));
+        listener = blackhole::consume;
+        EventDispatcher.addListener(listener, "benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        EventDispatcher.removeListener(listener);
+        MetricsProvider.useNoMetrics();
+    }
+
+    @Benchmark
+    public long timer() {
+        Metrics current = MetricsProvider.metrics();
+        long start = current.startTimer();
+        current.stopTimer(Metrics.AGGREGATE_REPLAY, start);
+        return start;
+    }
+
+    @Benchmark
+    public Bill loadBill() {
+        return Bill.loadBill(billEvents);
+    }
+
+    @Benchmark
+    public void sendEvents() {
+        EventDispatcher.sendEvents(events);
+    }
+
+    @Benchmark
+    public Events<BenchmarkEvent> readEvents() {
+        return repository.events(ID);
+    }
+}
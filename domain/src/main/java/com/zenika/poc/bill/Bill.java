@@ -10,25 +10,28 @@ import com.zenika.poc.bill.exception.BillClosedException;
 import com.zenika.poc.bill.exception.UnexpectedPaymentException;
 import com.zenika.poc.bill.exception.UnpaidBillException;
 import com.zenika.poc.share.Aggregate;
+import com.zenika.poc.share.AggregateId;
 import com.zenika.poc.share.Events;
+import com.zenika.poc.share.Snapshot;
 
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import static com.zenika.poc.bill.Order.emptyOrder;
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
 import static com.zenika.poc.share.Events.emptyEvents;
 import static com.zenika.poc.share.Events.singletonEvents;
 import static java.lang.String.format;
-import static java.util.UUID.randomUUID;
 
 public class Bill extends Aggregate<Bill, BillEvent> {
 
     @VisibleForTesting
-    protected static Bill createBill(String billId, Order itemsOrdered, Order itemsPaid, boolean closed) {
+    protected static Bill createBill(AggregateId billId, Order itemsOrdered, Order itemsPaid, boolean closed) {
         return new Bill(billId, emptyEvents(), itemsOrdered, itemsPaid, closed);
     }
 
     public static Bill createBill() {
-        String billId = randomUUID().toString();
+        AggregateId billId = randomAggregateId();
         return new Bill(billId, singletonEvents(new BillOpened(billId)), emptyOrder(), emptyOrder());
     }
 
@@ -38,17 +41,39 @@ public class Bill extends Aggregate<Bill, BillEvent> {
         return bill;
     }
 
+    public static Bill loadBill(Stream<BillEvent> history) {
+        Bill bill = new Bill(null, emptyEvents(), emptyOrder(), emptyOrder());
+        bill.replayEvents(history);
+        return bill;
+    }
+
+    public static Bill loadBill(Snapshot<BillState> snapshot, Stream<BillEvent> history) {
+        BillState state = snapshot.state;
+        Bill bill = new Bill(snapshot.aggregateId, emptyEvents(), state.itemsOrdered, state.itemsPaid, state.closed);
+        bill.snapshotVersion = snapshot.version;
+        bill.replayEvents(history);
+        return bill;
+    }
+
+    public static Bill loadBill(Snapshot<BillState> snapshot, Events<BillEvent> events) {
+        BillState state = snapshot.state;
+        Bill bill = new Bill(snapshot.aggregateId, emptyEvents(), state.itemsOrdered, state.itemsPaid, state.closed);
+        bill.snapshotVersion = snapshot.version;
+        bill.applyEvents(events);
+        return bill;
+    }
+
     private Order itemsOrdered;
 
     private Order itemsPaid;
 
     private boolean closed;
 
-    private Bill(String id, Events<BillEvent> events, Order itemsOrdered, Order itemsPaid) {
+    private Bill(AggregateId id, Events<BillEvent> events, Order itemsOrdered, Order itemsPaid) {
         this(id, events, itemsOrdered, itemsPaid, false);
     }
 
-    private Bill(String id, Events<BillEvent> events, Order itemsOrdered, Order itemsPaid, boolean closed) {
+    private Bill(AggregateId id, Events<BillEvent> events, Order itemsOrdered, Order itemsPaid, boolean closed) {
         super(id, events);
         this.itemsOrdered = itemsOrdered;
         this.itemsPaid = itemsPaid;
@@ -72,7 +97,7 @@ public class Bill extends Aggregate<Bill, BillEvent> {
     }
 
     @Override
-    protected void applyEvent(BillEvent event) {
+    protected void mutate(BillEvent event) {
         switch (event.type) {
             case BILL_OPENED:
                 id = event.aggregateId;
@@ -89,8 +114,10 @@ public class Bill extends Aggregate<Bill, BillEvent> {
             default:
                 throw new RuntimeException(format("Unexpected event type %s for event %s", event.type, event));
         }
+    }
 
-        events.add(event);
+    public Snapshot<BillState> snapshot() {
+        return new Snapshot<>(id, version(), new BillState(itemsOrdered, itemsPaid, closed));
     }
 
     public void order(Order itemsOrdered) {
@@ -152,8 +179,7 @@ public class Bill extends Aggregate<Bill, BillEvent> {
     }
 
     private void checkIsPaymentExpected(Order order) {
-        Order leftToPay = itemsOrdered.remove(this.itemsPaid);
-        if (!leftToPay.contains(order)) {
+        if (!itemsOrdered.containsAfterRemoving(itemsPaid, order)) {
             throw new UnexpectedPaymentException();
         }
     }
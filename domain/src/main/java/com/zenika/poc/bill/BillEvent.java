@@ -1,5 +1,6 @@
 package com.zenika.poc.bill;
 
+import com.zenika.poc.share.AggregateId;
 import com.zenika.poc.share.Event;
 
 import java.util.Objects;
@@ -15,7 +16,7 @@ public abstract class BillEvent extends Event {
 
     public final BillEventType type;
 
-    public BillEvent(String aggregateId, BillEventType type) {
+    public BillEvent(AggregateId aggregateId, BillEventType type) {
         super(aggregateId);
         this.type = type;
     }
@@ -25,16 +26,21 @@ public abstract class BillEvent extends Event {
         return type.name();
     }
 
+    @Override
+    public BillEventType typeKey() {
+        return type;
+    }
+
     public static class BillClosed extends BillEvent {
 
-        public BillClosed(String billId) {
+        public BillClosed(AggregateId billId) {
             super(billId, BillEventType.BILL_CLOSED);
         }
     }
 
     public static class BillOpened extends BillEvent {
 
-        public BillOpened(String billId) {
+        public BillOpened(AggregateId billId) {
             super(billId, BillEventType.BILL_OPENED);
         }
 
@@ -44,7 +50,7 @@ public abstract class BillEvent extends Event {
 
         public final Order itemPaid;
 
-        public OrderPaid(String billId, Order itemPaid) {
+        public OrderPaid(AggregateId billId, Order itemPaid) {
             super(billId, BillEventType.BILL_PAID);
             this.itemPaid = itemPaid;
         }
@@ -64,7 +70,7 @@ public abstract class BillEvent extends Event {
 
         public final Order orderedItem;
 
-        public OrderTaken(String billId, Order orderedItem) {
+        public OrderTaken(AggregateId billId, Order orderedItem) {
             super(billId, BillEventType.ORDER_TAKEN);
             this.orderedItem = orderedItem;
         }
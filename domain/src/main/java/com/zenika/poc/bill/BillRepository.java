@@ -1,11 +1,11 @@
 package com.zenika.poc.bill;
 
-import com.zenika.poc.share.Events;
+import com.zenika.poc.share.AggregateId;
 
 public interface BillRepository {
 
-    Bill findById(String id);
+    Bill findById(AggregateId id);
 
-    void save(Events<? extends BillEvent> events);
+    void save(Bill bill);
 
 }
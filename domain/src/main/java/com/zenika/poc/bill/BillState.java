@@ -0,0 +1,44 @@
+package com.zenika.poc.bill;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+public class BillState {
+
+    public final Order itemsOrdered;
+
+    public final Order itemsPaid;
+
+    public final boolean closed;
+
+    public BillState(Order itemsOrdered, Order itemsPaid, boolean closed) {
+        this.itemsOrdered = itemsOrdered;
+        this.itemsPaid = itemsPaid;
+        this.closed = closed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BillState)) return false;
+        BillState that = (BillState) o;
+        return closed == that.closed &&
+               Objects.equals(itemsOrdered, that.itemsOrdered) &&
+               Objects.equals(itemsPaid, that.itemsPaid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(itemsOrdered, itemsPaid, closed);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("itemsOrdered", itemsOrdered)
+                          .add("itemsPaid", itemsPaid)
+                          .add("closed", closed)
+                          .toString();
+    }
+}
@@ -1,18 +1,32 @@
 package com.zenika.poc.bill;
 
 import com.google.common.base.MoreObjects;
+import com.zenika.poc.share.Interner;
 
 import java.util.Objects;
 
 public class Item {
 
+    private static final Interner<Item> INTERNER = new Interner<>(4096);
+
+    public static Interner<Item> interner() {
+        return INTERNER;
+    }
+
+    static int hash(String name, double price) {
+        return 31 * Objects.hashCode(name) + Double.hashCode(price);
+    }
+
     public final String name;
 
     public final double price;
 
+    private final int hash;
+
     public Item(String name, double price) {
         this.name = name;
         this.price = price;
+        this.hash = hash(name, price);
     }
 
     @Override
@@ -26,7 +40,7 @@ public class Item {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, price);
+        return hash;
     }
 
     @Override
@@ -0,0 +1,53 @@
+package com.zenika.poc.bill;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.zenika.poc.bill.Item.interner;
+
+/**
+ * Process-wide registry giving every distinct {@link Item} ever ordered a dense id. Entries are
+ * never evicted, so it grows with the item catalogue, including renamed and repriced items.
+ */
+final class ItemTable {
+
+    private static final ConcurrentMap<Item, Integer> ids = new ConcurrentHashMap<>();
+
+    private static volatile Item[] items = new Item[64];
+
+    private static int size;
+
+    static int idOf(Item item) {
+        Integer id = ids.get(item);
+        return id != null ? id : register(item);
+    }
+
+    static Item itemOf(int id) {
+        return items[id];
+    }
+
+    static int size() {
+        return ids.size();
+    }
+
+    private static synchronized int register(Item item) {
+        Integer id = ids.get(item);
+        if (id != null) {
+            return id;
+        }
+
+        Item[] items = ItemTable.items;
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+        }
+        item = interner().intern(item);
+        items[size] = item;
+        ItemTable.items = items;
+        ids.put(item, size);
+        return size++;
+    }
+
+    private ItemTable() {
+    }
+}
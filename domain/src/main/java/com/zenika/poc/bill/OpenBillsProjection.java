@@ -0,0 +1,89 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.bill.BillEvent.OrderPaid;
+import com.zenika.poc.bill.BillEvent.OrderTaken;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.Event;
+import com.zenika.poc.share.Projection;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.zenika.poc.bill.BillEvent.BillEventType.BILL_CLOSED;
+import static com.zenika.poc.bill.BillEvent.BillEventType.BILL_OPENED;
+import static com.zenika.poc.bill.BillEvent.BillEventType.BILL_PAID;
+import static com.zenika.poc.bill.BillEvent.BillEventType.ORDER_TAKEN;
+import static com.zenika.poc.bill.Order.emptyOrder;
+
+public class OpenBillsProjection implements Projection {
+
+    private final ConcurrentMap<AggregateId, BillState> openBills = new ConcurrentHashMap<>();
+
+    private final Set<AggregateId> unpaidBills = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public String[] eventTypes() {
+        return new String[]{BILL_OPENED.name(), ORDER_TAKEN.name(), BILL_PAID.name(), BILL_CLOSED.name()};
+    }
+
+    @Override
+    public void consume(Event event) {
+        BillEvent billEvent = (BillEvent) event;
+        AggregateId billId = billEvent.aggregateId;
+        switch (billEvent.type) {
+            case BILL_OPENED:
+                openBills.put(billId, new BillState(emptyOrder(), emptyOrder(), false));
+                break;
+            case ORDER_TAKEN:
+                Order ordered = ((OrderTaken) billEvent).orderedItem;
+                update(billId, openBills.computeIfPresent(billId, (id, bill) -> new BillState(ordered, bill.itemsPaid, false)));
+                break;
+            case BILL_PAID:
+                Order paid = ((OrderPaid) billEvent).itemPaid;
+                update(billId, openBills.computeIfPresent(billId, (id, bill) -> new BillState(bill.itemsOrdered, paid, false)));
+                break;
+            case BILL_CLOSED:
+                openBills.remove(billId);
+                unpaidBills.remove(billId);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void clear() {
+        openBills.clear();
+        unpaidBills.clear();
+    }
+
+    public Set<AggregateId> openBills() {
+        return Collections.unmodifiableSet(openBills.keySet());
+    }
+
+    public Set<AggregateId> unpaidBills() {
+        return Collections.unmodifiableSet(unpaidBills);
+    }
+
+    public boolean isOpen(AggregateId billId) {
+        return openBills.containsKey(billId);
+    }
+
+    public boolean isUnpaid(AggregateId billId) {
+        return unpaidBills.contains(billId);
+    }
+
+    private void update(AggregateId billId, BillState bill) {
+        if (bill == null) {
+            return;
+        }
+
+        if (bill.itemsOrdered.equals(bill.itemsPaid)) {
+            unpaidBills.remove(billId);
+        } else {
+            unpaidBills.add(billId);
+        }
+    }
+}
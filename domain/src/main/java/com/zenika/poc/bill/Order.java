@@ -3,13 +3,11 @@ package com.zenika.poc.bill;
 import com.google.common.collect.ImmutableMap;
 import com.zenika.poc.bill.exception.NegativeOrderException;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
+import java.util.function.ObjIntConsumer;
 
-import static java.util.Collections.emptyMap;
-import static java.util.Collections.singletonMap;
-import static java.util.stream.Collectors.toMap;
+import static com.zenika.poc.bill.ItemTable.idOf;
 
 public class Order {
 
@@ -29,34 +27,42 @@ public class Order {
         return new Order(ImmutableMap.of(i1, n1, i2, n2, i3, n3));
     }
 
-    private final Map<Item, Integer> items;
+    private final OrderTrie items;
 
     public Order() {
-        this(emptyMap());
+        this(OrderTrie.EMPTY);
     }
 
     public Order(Item i1, int n1) {
-        this(singletonMap(i1, n1));
+        this(ImmutableMap.of(i1, n1));
     }
 
     public Order(Map<Item, Integer> items) {
-        this.items = items.entrySet()
-                          .stream()
-                          .peek(e -> checkPositiveOrder(e.getValue()))
-                          .filter(e -> e.getValue() > 0)
-                          .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+        OrderTrie trie = OrderTrie.EMPTY;
+        for (Map.Entry<Item, Integer> entry : items.entrySet()) {
+            int quantity = entry.getValue();
+            checkPositiveOrder(quantity);
+            if (quantity > 0) {
+                trie = trie.merge(OrderTrie.singleton(idOf(entry.getKey()), quantity), 1);
+            }
+        }
+        this.items = trie;
+    }
+
+    private Order(OrderTrie items) {
+        this.items = items;
     }
 
     public Order add(Item thatItem, int thatNumber) {
-        Map<Item, Integer> thisItems = new HashMap<>(items);
-        add(thisItems, thatItem, thatNumber);
-        return new Order(thisItems);
+        if (thatNumber == 0) {
+            return this;
+        }
+        OrderTrie that = OrderTrie.singleton(idOf(thatItem), Math.abs(thatNumber));
+        return new Order(items.merge(that, thatNumber > 0 ? 1 : -1));
     }
 
     public Order add(Order that) {
-        Map<Item, Integer> thisItems = new HashMap<>(items);
-        that.items.forEach((thatItem, thanNumber) -> add(thisItems, thatItem, thanNumber));
-        return new Order(thisItems);
+        return new Order(items.merge(that.items, 1));
     }
 
     public Order remove(Item thatItem, int thatNumber) {
@@ -64,18 +70,31 @@ public class Order {
     }
 
     public Order remove(Order that) {
-        Map<Item, Integer> thisItems = new HashMap<>(items);
-        that.items.forEach((thatItem, thatNumber) -> add(thisItems, thatItem, -thatNumber));
-        return new Order(thisItems);
+        return new Order(items.merge(that.items, -1));
+    }
+
+    public int size() {
+        return items.size;
+    }
+
+    public double total() {
+        return items.amount;
+    }
+
+    public void forEach(ObjIntConsumer<Item> consumer) {
+        items.forEach(consumer);
+    }
+
+    public void forEachDifference(Order previous, ObjIntConsumer<Item> consumer) {
+        OrderTrie.difference(items, previous.items, 0, consumer);
     }
 
     public boolean contains(Order that) {
-        try {
-            remove(that);
-            return true;
-        } catch (NegativeOrderException e) {
-            return false;
-        }
+        return OrderTrie.covers(items, OrderTrie.EMPTY, that.items);
+    }
+
+    public boolean containsAfterRemoving(Order removed, Order that) {
+        return OrderTrie.covers(items, removed.items, that.items);
     }
 
     @Override
@@ -83,25 +102,23 @@ public class Order {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Order order = (Order) o;
-        return Objects.equals(items, order.items);
+        return OrderTrie.equal(items, order.items);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(items);
+        return items.hash;
     }
 
     @Override
     public String toString() {
+        Map<Item, Integer> lines = new LinkedHashMap<>();
+        forEach(lines::put);
         return "Order{" +
-                "items=" + items +
+                "items=" + lines +
                 '}';
     }
 
-    private Integer add(Map<Item, Integer> thisItems, Item thatItem, Integer thanNumber) {
-        return thisItems.compute(thatItem, (ignore, thisNumber) -> (thisNumber == null) ? thanNumber : thisNumber + thanNumber);
-    }
-
     private void checkPositiveOrder(int value) {
         if (value < 0) throw new NegativeOrderException();
     }
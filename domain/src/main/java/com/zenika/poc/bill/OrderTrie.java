@@ -0,0 +1,239 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.bill.exception.NegativeOrderException;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+import static com.zenika.poc.bill.ItemTable.itemOf;
+
+final class OrderTrie {
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    static final OrderTrie EMPTY = new OrderTrie(0, new Object[0], 0, 0, 0);
+
+    static OrderTrie singleton(int id, int quantity) {
+        return wrap(new Entry(id, quantity), 0);
+    }
+
+    final int size;
+
+    final int hash;
+
+    final double amount;
+
+    private final int bitmap;
+
+    private final Object[] slots;
+
+    private OrderTrie(int bitmap, Object[] slots, int size, int hash, double amount) {
+        this.bitmap = bitmap;
+        this.slots = slots;
+        this.size = size;
+        this.hash = hash;
+        this.amount = amount;
+    }
+
+    OrderTrie merge(OrderTrie that, int sign) {
+        return merge(this, that, sign, 0);
+    }
+
+    int quantityOf(int id) {
+        OrderTrie node = this;
+        for (int shift = 0; ; shift += BITS) {
+            int bit = 1 << ((id >>> shift) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return 0;
+            }
+
+            Object slot = node.slots[node.index(bit)];
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                return entry.id == id ? entry.quantity : 0;
+            }
+            node = (OrderTrie) slot;
+        }
+    }
+
+    static boolean covers(OrderTrie minuend, OrderTrie subtrahend, OrderTrie that) {
+        for (Object slot : that.slots) {
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                if (minuend.quantityOf(entry.id) - subtrahend.quantityOf(entry.id) < entry.quantity) {
+                    return false;
+                }
+            } else if (!covers(minuend, subtrahend, (OrderTrie) slot)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void forEach(ObjIntConsumer<Item> consumer) {
+        for (Object slot : slots) {
+            if (slot instanceof Entry) {
+                Entry entry = (Entry) slot;
+                consumer.accept(itemOf(entry.id), entry.quantity);
+            } else {
+                ((OrderTrie) slot).forEach(consumer);
+            }
+        }
+    }
+
+    static void difference(Object x, Object y, int shift, ObjIntConsumer<Item> consumer) {
+        if (x == y) return;
+        if (y == null) {
+            forEach(x, 1, consumer);
+            return;
+        }
+        if (x == null) {
+            forEach(y, -1, consumer);
+            return;
+        }
+
+        if (x instanceof Entry && y instanceof Entry && ((Entry) x).id == ((Entry) y).id) {
+            int delta = ((Entry) x).quantity - ((Entry) y).quantity;
+            if (delta != 0) {
+                consumer.accept(itemOf(((Entry) x).id), delta);
+            }
+            return;
+        }
+
+        OrderTrie a = asNode(x, shift);
+        OrderTrie b = asNode(y, shift);
+        for (int bits = a.bitmap | b.bitmap; bits != 0; bits &= bits - 1) {
+            int bit = Integer.lowestOneBit(bits);
+            difference((a.bitmap & bit) != 0 ? a.slots[a.index(bit)] : null,
+                       (b.bitmap & bit) != 0 ? b.slots[b.index(bit)] : null,
+                       shift + BITS, consumer);
+        }
+    }
+
+    private static void forEach(Object slot, int sign, ObjIntConsumer<Item> consumer) {
+        if (slot instanceof Entry) {
+            Entry entry = (Entry) slot;
+            consumer.accept(itemOf(entry.id), sign * entry.quantity);
+        } else {
+            for (Object child : ((OrderTrie) slot).slots) {
+                forEach(child, sign, consumer);
+            }
+        }
+    }
+
+    static boolean equal(OrderTrie a, OrderTrie b) {
+        if (a == b) return true;
+        if (a.size != b.size || a.hash != b.hash || a.bitmap != b.bitmap) return false;
+        for (int i = 0; i < a.slots.length; i++) {
+            if (!equalSlots(a.slots[i], b.slots[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalSlots(Object x, Object y) {
+        if (x == y) return true;
+        if (x instanceof Entry && y instanceof Entry) {
+            Entry ex = (Entry) x;
+            Entry ey = (Entry) y;
+            return ex.id == ey.id && ex.quantity == ey.quantity;
+        }
+        return x instanceof OrderTrie && y instanceof OrderTrie && equal((OrderTrie) x, (OrderTrie) y);
+    }
+
+    private static OrderTrie merge(OrderTrie a, OrderTrie b, int sign, int shift) {
+        if (b.size == 0) return a;
+        if (a.size == 0 && sign > 0) return b;
+
+        int bitmap = a.bitmap | b.bitmap;
+        Object[] slots = new Object[Integer.bitCount(bitmap)];
+        int resultBitmap = 0;
+        int count = 0;
+        int size = 0;
+        int hash = 0;
+        double amount = 0;
+        for (int bits = bitmap; bits != 0; bits &= bits - 1) {
+            int bit = Integer.lowestOneBit(bits);
+            Object x = (a.bitmap & bit) != 0 ? a.slots[a.index(bit)] : null;
+            Object y = (b.bitmap & bit) != 0 ? b.slots[b.index(bit)] : null;
+            Object slot = mergeSlots(x, y, sign, shift + BITS);
+            if (slot != null) {
+                resultBitmap |= bit;
+                slots[count++] = slot;
+                size += sizeOf(slot);
+                hash += hashOf(slot);
+                amount += amountOf(slot);
+            }
+        }
+        return new OrderTrie(resultBitmap, count == slots.length ? slots : Arrays.copyOf(slots, count), size, hash, amount);
+    }
+
+    private static Object mergeSlots(Object x, Object y, int sign, int shift) {
+        if (y == null) return x;
+        if (x == null) {
+            if (sign < 0) throw new NegativeOrderException();
+            return y;
+        }
+
+        if (x instanceof Entry && y instanceof Entry && ((Entry) x).id == ((Entry) y).id) {
+            int quantity = ((Entry) x).quantity + sign * ((Entry) y).quantity;
+            if (quantity < 0) throw new NegativeOrderException();
+            return quantity == 0 ? null : new Entry(((Entry) x).id, quantity);
+        }
+
+        OrderTrie merged = merge(asNode(x, shift), asNode(y, shift), sign, shift);
+        if (merged.size == 0) return null;
+        if (merged.size == 1 && merged.slots[0] instanceof Entry) return merged.slots[0];
+        return merged;
+    }
+
+    private static OrderTrie asNode(Object slot, int shift) {
+        return slot instanceof Entry ? wrap((Entry) slot, shift) : (OrderTrie) slot;
+    }
+
+    private static OrderTrie wrap(Entry entry, int shift) {
+        return new OrderTrie(1 << ((entry.id >>> shift) & MASK), new Object[]{entry}, 1, entry.hash(), entry.amount());
+    }
+
+    private static int sizeOf(Object slot) {
+        return slot instanceof Entry ? 1 : ((OrderTrie) slot).size;
+    }
+
+    private static int hashOf(Object slot) {
+        return slot instanceof Entry ? ((Entry) slot).hash() : ((OrderTrie) slot).hash;
+    }
+
+    private static double amountOf(Object slot) {
+        return slot instanceof Entry ? ((Entry) slot).amount() : ((OrderTrie) slot).amount;
+    }
+
+    private int index(int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static final class Entry {
+
+        private final int id;
+
+        private final int quantity;
+
+        private Entry(int id, int quantity) {
+            this.id = id;
+            this.quantity = quantity;
+        }
+
+        private double amount() {
+            return itemOf(id).price * quantity;
+        }
+
+        private int hash() {
+            int h = id * 0x9E3779B9 + quantity;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            return h ^ (h >>> 13);
+        }
+    }
+}
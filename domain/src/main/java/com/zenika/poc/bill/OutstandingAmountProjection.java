@@ -0,0 +1,66 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.bill.BillEvent.OrderPaid;
+import com.zenika.poc.bill.BillEvent.OrderTaken;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.Event;
+import com.zenika.poc.share.Projection;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.zenika.poc.bill.BillEvent.BillEventType.BILL_CLOSED;
+import static com.zenika.poc.bill.BillEvent.BillEventType.BILL_PAID;
+import static com.zenika.poc.bill.BillEvent.BillEventType.ORDER_TAKEN;
+
+public class OutstandingAmountProjection implements Projection {
+
+    private final ConcurrentMap<AggregateId, Balance> balances = new ConcurrentHashMap<>();
+
+    @Override
+    public String[] eventTypes() {
+        return new String[]{ORDER_TAKEN.name(), BILL_PAID.name(), BILL_CLOSED.name()};
+    }
+
+    @Override
+    public void consume(Event event) {
+        BillEvent billEvent = (BillEvent) event;
+        switch (billEvent.type) {
+            case ORDER_TAKEN:
+                double ordered = ((OrderTaken) billEvent).orderedItem.total();
+                balances.merge(billEvent.aggregateId, new Balance(ordered, 0), (balance, ignored) -> new Balance(ordered, balance.paid));
+                break;
+            case BILL_PAID:
+                double paid = ((OrderPaid) billEvent).itemPaid.total();
+                balances.merge(billEvent.aggregateId, new Balance(0, paid), (balance, ignored) -> new Balance(balance.ordered, paid));
+                break;
+            case BILL_CLOSED:
+                balances.remove(billEvent.aggregateId);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void clear() {
+        balances.clear();
+    }
+
+    public double outstandingAmount(AggregateId billId) {
+        Balance balance = balances.get(billId);
+        return balance == null ? 0 : balance.ordered - balance.paid;
+    }
+
+    private static final class Balance {
+
+        private final double ordered;
+
+        private final double paid;
+
+        private Balance(double ordered, double paid) {
+            this.ordered = ordered;
+            this.paid = paid;
+        }
+    }
+}
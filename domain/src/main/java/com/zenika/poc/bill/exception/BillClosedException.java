@@ -1,4 +1,6 @@
 package com.zenika.poc.bill.exception;
 
-public class BillClosedException extends RuntimeException {
+import com.zenika.poc.share.exception.DomainException;
+
+public class BillClosedException extends DomainException {
 }
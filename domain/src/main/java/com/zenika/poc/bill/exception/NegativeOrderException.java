@@ -1,4 +1,6 @@
 package com.zenika.poc.bill.exception;
 
-public class NegativeOrderException extends RuntimeException {
+import com.zenika.poc.share.exception.DomainException;
+
+public class NegativeOrderException extends DomainException {
 }
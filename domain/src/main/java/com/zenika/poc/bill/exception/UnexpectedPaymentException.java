@@ -1,4 +1,6 @@
 package com.zenika.poc.bill.exception;
 
-public class UnexpectedPaymentException extends RuntimeException {
+import com.zenika.poc.share.exception.DomainException;
+
+public class UnexpectedPaymentException extends DomainException {
 }
@@ -1,6 +1,8 @@
 package com.zenika.poc.bill.exception;
 
-public class UnknownBillException extends RuntimeException {
+import com.zenika.poc.share.exception.DomainException;
+
+public class UnknownBillException extends DomainException {
 
     public UnknownBillException() {
     }
@@ -9,19 +9,22 @@ import com.zenika.poc.item.ItemEvent.ItemPriceChanged;
 import com.zenika.poc.item.ItemEvent.ItemReserved;
 import com.zenika.poc.item.exception.*;
 import com.zenika.poc.share.Aggregate;
+import com.zenika.poc.share.AggregateId;
 import com.zenika.poc.share.Events;
+import com.zenika.poc.share.Snapshot;
 
 import java.util.Objects;
+import java.util.stream.Stream;
 
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
 import static com.zenika.poc.share.Events.emptyEvents;
 import static com.zenika.poc.share.Events.singletonEvents;
 import static java.lang.String.format;
-import static java.util.UUID.randomUUID;
 
 public class Item extends Aggregate<Item, ItemEvent> {
 
     @VisibleForTesting
-    protected static Item createStock(String stockId, String name, int stock, double price) {
+    protected static Item createStock(AggregateId stockId, String name, int stock, double price) {
         return new Item(stockId,
                         singletonEvents(new ItemCreated(stockId, name, stock, price)),
                         name,
@@ -31,7 +34,7 @@ public class Item extends Aggregate<Item, ItemEvent> {
     }
 
     public static Item createStock(String name, int stock, double price) {
-        String stockId = randomUUID().toString();
+        AggregateId stockId = randomAggregateId();
         return createStock(stockId, name, stock, price);
     }
 
@@ -41,13 +44,35 @@ public class Item extends Aggregate<Item, ItemEvent> {
         return item;
     }
 
+    public static Item loadStock(Stream<ItemEvent> history) {
+        Item item = new Item(null, emptyEvents(), "INIT", 0, 0);
+        item.replayEvents(history);
+        return item;
+    }
+
+    public static Item loadStock(Snapshot<ItemState> snapshot, Stream<ItemEvent> history) {
+        ItemState state = snapshot.state;
+        Item item = new Item(snapshot.aggregateId, emptyEvents(), state.name, state.stock, state.price);
+        item.snapshotVersion = snapshot.version;
+        item.replayEvents(history);
+        return item;
+    }
+
+    public static Item loadStock(Snapshot<ItemState> snapshot, Events<ItemEvent> events) {
+        ItemState state = snapshot.state;
+        Item item = new Item(snapshot.aggregateId, emptyEvents(), state.name, state.stock, state.price);
+        item.snapshotVersion = snapshot.version;
+        item.applyEvents(events);
+        return item;
+    }
+
     public String name;
 
     public int stock;
 
     public double price;
 
-    private Item(String id, Events<ItemEvent> events, String name, int stock, double price) {
+    private Item(AggregateId id, Events<ItemEvent> events, String name, int stock, double price) {
         super(id, events);
         this.name = name;
         this.stock = stock;
@@ -55,12 +80,13 @@ public class Item extends Aggregate<Item, ItemEvent> {
     }
 
     @Override
-    protected void applyEvent(ItemEvent event) {
+    protected void mutate(ItemEvent event) {
         switch (event.type) {
             case ITEM_CREATED:
                 ItemCreated itemCreated = (ItemCreated) event;
                 id = itemCreated.aggregateId;
                 name = itemCreated.name;
+                stock = itemCreated.stock;
                 price = itemCreated.price;
                 break;
             case ITEM_ADDED:
@@ -79,8 +105,10 @@ public class Item extends Aggregate<Item, ItemEvent> {
             default:
                 throw new RuntimeException(format("Unexpected event type %s for event %s", event.type, event));
         }
+    }
 
-        events.add(event);
+    public Snapshot<ItemState> snapshot() {
+        return new Snapshot<>(id, version(), new ItemState(name, stock, price));
     }
 
     public void changeName(String name) {
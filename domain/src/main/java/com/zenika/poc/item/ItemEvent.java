@@ -1,5 +1,6 @@
 package com.zenika.poc.item;
 
+import com.zenika.poc.share.AggregateId;
 import com.zenika.poc.share.Event;
 
 import java.util.Objects;
@@ -18,7 +19,7 @@ public class ItemEvent extends Event {
 
     public final StockEventType type;
 
-    public ItemEvent(String itemId, StockEventType type) {
+    public ItemEvent(AggregateId itemId, StockEventType type) {
         super(itemId);
         this.type = type;
     }
@@ -32,6 +33,11 @@ public class ItemEvent extends Event {
         return type.name();
     }
 
+    @Override
+    public StockEventType typeKey() {
+        return type;
+    }
+
     public static class ItemCreated extends ItemEvent {
 
         public final String name;
@@ -40,7 +46,7 @@ public class ItemEvent extends Event {
 
         public final double price;
 
-        public ItemCreated(String itemId, String name, int stock, double price) {
+        public ItemCreated(AggregateId itemId, String name, int stock, double price) {
             super(itemId, ITEM_CREATED);
             this.name = name;
             this.stock = stock;
@@ -63,7 +69,7 @@ public class ItemEvent extends Event {
 
         public final String newName;
 
-        public ItemNameChanged(String itemId, String newName) {
+        public ItemNameChanged(AggregateId itemId, String newName) {
             super(itemId, ITEM_NAME_CHANGED);
             this.newName = newName;
         }
@@ -82,7 +88,7 @@ public class ItemEvent extends Event {
 
         public final int stock;
 
-        public ItemAdded(String itemId, int stock) {
+        public ItemAdded(AggregateId itemId, int stock) {
             super(itemId, ITEM_ADDED);
             this.stock = stock;
         }
@@ -101,7 +107,7 @@ public class ItemEvent extends Event {
 
         public final int newStock;
 
-        public ItemReserved(String itemId, int newStock) {
+        public ItemReserved(AggregateId itemId, int newStock) {
             super(itemId, ITEM_REMOVED);
             this.newStock = newStock;
         }
@@ -120,7 +126,7 @@ public class ItemEvent extends Event {
 
         public final double newPrice;
 
-        public ItemPriceChanged(String itemId, double newPrice) {
+        public ItemPriceChanged(AggregateId itemId, double newPrice) {
             super(itemId, ITEM_PRICE_CHANGED);
             this.newPrice = newPrice;
         }
@@ -1,12 +1,11 @@
 package com.zenika.poc.item;
 
-import com.zenika.poc.bill.Bill;
-import com.zenika.poc.share.Events;
+import com.zenika.poc.share.AggregateId;
 
 public interface ItemRepository {
 
-    Bill findById(String id);
+    Item findById(AggregateId id);
 
-    void save(Events<? extends ItemEvent> events);
+    void save(Item item);
 
 }
@@ -0,0 +1,44 @@
+package com.zenika.poc.item;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+public class ItemState {
+
+    public final String name;
+
+    public final int stock;
+
+    public final double price;
+
+    public ItemState(String name, int stock, double price) {
+        this.name = name;
+        this.stock = stock;
+        this.price = price;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemState)) return false;
+        ItemState that = (ItemState) o;
+        return stock == that.stock &&
+               Double.compare(that.price, price) == 0 &&
+               Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, stock, price);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("name", name)
+                          .add("stock", stock)
+                          .add("price", price)
+                          .toString();
+    }
+}
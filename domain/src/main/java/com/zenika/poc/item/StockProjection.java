@@ -0,0 +1,77 @@
+package com.zenika.poc.item;
+
+import com.zenika.poc.item.ItemEvent.ItemAdded;
+import com.zenika.poc.item.ItemEvent.ItemCreated;
+import com.zenika.poc.item.ItemEvent.ItemNameChanged;
+import com.zenika.poc.item.ItemEvent.ItemPriceChanged;
+import com.zenika.poc.item.ItemEvent.ItemReserved;
+import com.zenika.poc.item.ItemEvent.StockEventType;
+import com.zenika.poc.item.exception.UnknownItemException;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.Event;
+import com.zenika.poc.share.Projection;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Arrays.stream;
+
+public class StockProjection implements Projection {
+
+    private final ConcurrentMap<AggregateId, ItemState> items = new ConcurrentHashMap<>();
+
+    @Override
+    public String[] eventTypes() {
+        return stream(StockEventType.values()).map(Enum::name).toArray(String[]::new);
+    }
+
+    @Override
+    public void consume(Event event) {
+        ItemEvent itemEvent = (ItemEvent) event;
+        switch (itemEvent.type) {
+            case ITEM_CREATED:
+                ItemCreated itemCreated = (ItemCreated) itemEvent;
+                items.put(itemEvent.aggregateId, new ItemState(itemCreated.name, itemCreated.stock, itemCreated.price));
+                break;
+            case ITEM_ADDED:
+                int stock = ((ItemAdded) itemEvent).stock;
+                items.computeIfPresent(itemEvent.aggregateId, (id, item) -> new ItemState(item.name, stock, item.price));
+                break;
+            case ITEM_REMOVED:
+                int newStock = ((ItemReserved) itemEvent).newStock;
+                items.computeIfPresent(itemEvent.aggregateId, (id, item) -> new ItemState(item.name, newStock, item.price));
+                break;
+            case ITEM_PRICE_CHANGED:
+                double newPrice = ((ItemPriceChanged) itemEvent).newPrice;
+                items.computeIfPresent(itemEvent.aggregateId, (id, item) -> new ItemState(item.name, item.stock, newPrice));
+                break;
+            case ITEM_NAME_CHANGED:
+                String newName = ((ItemNameChanged) itemEvent).newName;
+                items.computeIfPresent(itemEvent.aggregateId, (id, item) -> new ItemState(newName, item.stock, item.price));
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+    }
+
+    public ItemState item(AggregateId itemId) {
+        ItemState item = items.get(itemId);
+        if (item == null) {
+            throw new UnknownItemException();
+        }
+        return item;
+    }
+
+    public int stockOf(AggregateId itemId) {
+        return item(itemId).stock;
+    }
+
+    public double priceOf(AggregateId itemId) {
+        return item(itemId).price;
+    }
+}
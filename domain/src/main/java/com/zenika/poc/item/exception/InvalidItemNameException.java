@@ -1,4 +1,6 @@
 package com.zenika.poc.item.exception;
 
-public class InvalidItemNameException extends RuntimeException {
+import com.zenika.poc.share.exception.DomainException;
+
+public class InvalidItemNameException extends DomainException {
 }
@@ -1,5 +1,7 @@
 package com.zenika.poc.item.exception;
 
-public class NegativeItemNumberException extends RuntimeException {
+import com.zenika.poc.share.exception.DomainException;
+
+public class NegativeItemNumberException extends DomainException {
 
 }
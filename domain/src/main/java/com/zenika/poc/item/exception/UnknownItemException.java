@@ -0,0 +1,6 @@
+package com.zenika.poc.item.exception;
+
+import com.zenika.poc.share.exception.DomainException;
+
+public class UnknownItemException extends DomainException {
+}
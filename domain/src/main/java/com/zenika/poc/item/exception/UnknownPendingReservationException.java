@@ -1,4 +1,6 @@
 package com.zenika.poc.item.exception;
 
-public class UnknownPendingReservationException extends RuntimeException {
+import com.zenika.poc.share.exception.DomainException;
+
+public class UnknownPendingReservationException extends DomainException {
 }
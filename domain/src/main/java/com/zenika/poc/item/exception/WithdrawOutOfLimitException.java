@@ -1,4 +1,6 @@
 package com.zenika.poc.item.exception;
 
-public class WithdrawOutOfLimitException extends RuntimeException {
+import com.zenika.poc.share.exception.DomainException;
+
+public class WithdrawOutOfLimitException extends DomainException {
 }
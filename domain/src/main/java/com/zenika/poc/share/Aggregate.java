@@ -1,31 +1,75 @@
 package com.zenika.poc.share;
 
 import java.util.Objects;
+import java.util.stream.Stream;
+
+import static com.zenika.poc.share.Events.emptyEvents;
+import static com.zenika.poc.share.Metrics.AGGREGATE_REPLAY;
+import static com.zenika.poc.share.Metrics.AGGREGATE_REPLAYED_EVENTS;
+import static com.zenika.poc.share.MetricsProvider.metrics;
 
 public abstract class Aggregate<AGGREGATE extends Aggregate<AGGREGATE, EVENT>, EVENT extends Event> {
 
-    public String id;
+    public AggregateId id;
 
     protected Events<EVENT> events;
 
-    public Aggregate(String id, Events<EVENT> events) {
+    protected int snapshotVersion;
+
+    public Aggregate(AggregateId id, Events<EVENT> events) {
         this.id = id;
         this.events = events;
     }
 
     protected void applyEvents(Events<EVENT> events) {
-        Aggregate<AGGREGATE, EVENT> current = this;
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
         for (EVENT event : events) {
-            current.applyEvent(event);
+            mutate(event);
         }
+        snapshotVersion += events.size();
+        if (metrics.enabled()) {
+            metrics.stopTimer(AGGREGATE_REPLAY, start);
+            metrics.counter(AGGREGATE_REPLAYED_EVENTS).add(events.size());
+        }
+    }
+
+    protected void replayEvents(Stream<EVENT> history) {
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        int fromVersion = snapshotVersion;
+        history.forEachOrdered(this::replayEvent);
+        if (metrics.enabled()) {
+            metrics.stopTimer(AGGREGATE_REPLAY, start);
+            metrics.counter(AGGREGATE_REPLAYED_EVENTS).add(snapshotVersion - fromVersion);
+        }
+    }
+
+    protected void applyEvent(EVENT event) {
+        mutate(event);
+        events.add(event);
+    }
+
+    private void replayEvent(EVENT event) {
+        mutate(event);
+        snapshotVersion++;
     }
 
-    protected abstract void applyEvent(EVENT event);
+    protected abstract void mutate(EVENT event);
+
+    void markCommitted() {
+        snapshotVersion += events.size();
+        events = emptyEvents();
+    }
 
     public Events<EVENT> events() {
         return events;
     }
 
+    public int version() {
+        return snapshotVersion + events.size();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(id);
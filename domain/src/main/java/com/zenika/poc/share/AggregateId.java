@@ -0,0 +1,55 @@
+package com.zenika.poc.share;
+
+import java.util.UUID;
+
+public final class AggregateId implements Comparable<AggregateId> {
+
+    public static AggregateId randomAggregateId() {
+        UUID uuid = UUID.randomUUID();
+        return new AggregateId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public static AggregateId aggregateId(long mostSignificantBits, long leastSignificantBits) {
+        return new AggregateId(mostSignificantBits, leastSignificantBits);
+    }
+
+    public static AggregateId aggregateId(String value) {
+        UUID uuid = UUID.fromString(value);
+        return new AggregateId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public final long mostSignificantBits;
+
+    public final long leastSignificantBits;
+
+    private AggregateId(long mostSignificantBits, long leastSignificantBits) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AggregateId)) return false;
+        AggregateId that = (AggregateId) o;
+        return mostSignificantBits == that.mostSignificantBits && leastSignificantBits == that.leastSignificantBits;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = mostSignificantBits * 0x9E3779B97F4A7C15L + leastSignificantBits;
+        hash = (hash ^ (hash >>> 32)) * 0xD6E8FEB86659FD93L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public int compareTo(AggregateId that) {
+        int compare = Long.compare(mostSignificantBits, that.mostSignificantBits);
+        return compare != 0 ? compare : Long.compare(leastSignificantBits, that.leastSignificantBits);
+    }
+
+    @Override
+    public String toString() {
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.zenika.poc.share;
+
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+
+public interface BatchEventConsumer extends EventConsumer {
+
+    static BatchEventConsumer batching(EventConsumer eventConsumer) {
+        if (eventConsumer instanceof BatchEventConsumer) {
+            return (BatchEventConsumer) eventConsumer;
+        }
+        return events -> events.forEach(eventConsumer::consume);
+    }
+
+    void consumeBatch(List<Event> events);
+
+    @Override
+    default void consume(Event event) {
+        consumeBatch(singletonList(event));
+    }
+
+}
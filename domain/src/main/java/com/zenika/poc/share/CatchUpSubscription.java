@@ -0,0 +1,132 @@
+package com.zenika.poc.share;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.zenika.poc.share.Exceptions.uncheck;
+import static java.util.Collections.unmodifiableList;
+
+public class CatchUpSubscription<EVENT extends Event> implements AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 512;
+
+    public static final long DEFAULT_IDLE_WAIT_MICROS = 500;
+
+    private final String name;
+
+    private final EventRepository<EVENT> repository;
+
+    private final CheckpointStore checkpointStore;
+
+    private final EventConsumer consumer;
+
+    private final int batchSize;
+
+    private final long idleWaitNanos;
+
+    private final Object lock;
+
+    private volatile long position;
+
+    private volatile boolean live;
+
+    private volatile boolean running;
+
+    private volatile Throwable failure;
+
+    private Thread thread;
+
+    public CatchUpSubscription(String name, EventRepository<EVENT> repository, CheckpointStore checkpointStore, EventConsumer consumer) {
+        this(name, repository, checkpointStore, consumer, DEFAULT_BATCH_SIZE, DEFAULT_IDLE_WAIT_MICROS, TimeUnit.MICROSECONDS);
+    }
+
+    public CatchUpSubscription(String name, EventRepository<EVENT> repository, CheckpointStore checkpointStore, EventConsumer consumer,
+                               int batchSize, long idleWait, TimeUnit unit) {
+        checkArgument(batchSize > 0, "Batch size must be positive");
+        checkArgument(idleWait >= 0, "Idle wait must not be negative");
+        this.name = name;
+        this.repository = repository;
+        this.checkpointStore = checkpointStore;
+        this.consumer = consumer;
+        this.batchSize = batchSize;
+        this.idleWaitNanos = unit.toNanos(idleWait);
+        this.lock = new Object();
+        this.position = checkpointStore.checkpoint(name);
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public boolean isLive() {
+        return live && failure == null;
+    }
+
+    public Throwable failure() {
+        return failure;
+    }
+
+    public int poll() {
+        synchronized (lock) {
+            List<EVENT> events = repository.readAll(position, batchSize);
+            if (!events.isEmpty()) {
+                deliver(events);
+                position += events.size();
+                checkpointStore.saveCheckpoint(name, position);
+            }
+            if (events.size() < batchSize) {
+                live = true;
+            }
+            return events.size();
+        }
+    }
+
+    public void start() {
+        synchronized (lock) {
+            checkState(thread == null || !thread.isAlive(), "Subscription %s is already started", name);
+            failure = null;
+            running = true;
+            thread = new Thread(this::run, "subscription-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        Thread thread = this.thread;
+        if (thread != null) {
+            uncheck(() -> thread.join());
+            synchronized (lock) {
+                if (this.thread == thread) {
+                    this.thread = null;
+                }
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                if (poll() == 0) {
+                    LockSupport.parkNanos(idleWaitNanos);
+                }
+            }
+        } catch (Throwable e) {
+            failure = e;
+            running = false;
+        }
+    }
+
+    private void deliver(List<EVENT> events) {
+        if (consumer instanceof BatchEventConsumer) {
+            ((BatchEventConsumer) consumer).consumeBatch(unmodifiableList(events));
+        } else {
+            events.forEach(consumer::consume);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.zenika.poc.share;
+
+public interface CheckpointStore {
+
+    long NO_CHECKPOINT = 0;
+
+    long checkpoint(String subscription);
+
+    void saveCheckpoint(String subscription, long position);
+
+    void clearAllCheckpoints();
+
+}
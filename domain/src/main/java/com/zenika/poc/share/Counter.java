@@ -0,0 +1,11 @@
+package com.zenika.poc.share;
+
+public interface Counter {
+
+    void add(long value);
+
+    default void increment() {
+        add(1);
+    }
+
+}
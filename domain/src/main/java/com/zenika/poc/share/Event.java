@@ -4,9 +4,9 @@ import java.util.Objects;
 
 public abstract class Event {
 
-    public final String aggregateId;
+    public final AggregateId aggregateId;
 
-    public Event(String aggregateId) {
+    public Event(AggregateId aggregateId) {
         this.aggregateId = aggregateId;
     }
 
@@ -20,9 +20,13 @@ public abstract class Event {
 
     @Override
     public int hashCode() {
-        return Objects.hash(aggregateId);
+        return Objects.hashCode(aggregateId);
     }
 
     public abstract String eventType();
 
+    public Enum<?> typeKey() {
+        return null;
+    }
+
 }
@@ -1,28 +1,138 @@
 package com.zenika.poc.share;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static com.zenika.poc.share.ListenerRegistry.emptyRegistry;
+import static com.zenika.poc.share.Metrics.DISPATCH_CONSUME;
+import static com.zenika.poc.share.Metrics.DISPATCH_DROPPED_BATCHES;
+import static com.zenika.poc.share.Metrics.DISPATCH_LAG;
+import static com.zenika.poc.share.Metrics.DISPATCH_QUEUE_DEPTH;
+import static com.zenika.poc.share.MetricsProvider.metrics;
+import static com.zenika.poc.share.MetricsProvider.registerGauge;
 
 public class EventDispatcher {
 
     private static final Object lock = new Object();
 
-    private static final Multimap<String, EventConsumer> listeners = HashMultimap.create();
+    private static final AtomicReference<ListenerRegistry> registry = new AtomicReference<>(emptyRegistry());
+
+    private static volatile PartitionedDispatch partitionedDispatch;
+
+    static {
+        registerGauge(DISPATCH_QUEUE_DEPTH, () -> IntStream.of(queueDepths()).sum());
+        registerGauge(DISPATCH_DROPPED_BATCHES, EventDispatcher::droppedBatches);
+    }
 
     public static void addListener(EventConsumer eventConsumer, String... eventTypes) {
         synchronized (lock) {
-            for (String eventType : eventTypes) {
-                listeners.put(eventType, eventConsumer);
-            }
+            registry.set(registry.get().withListener(eventConsumer, eventTypes));
         }
     }
 
-    public static void sendEvents(Events<?> events) {
+    public static void addProjection(Projection projection) {
+        addListener(projection, projection.eventTypes());
+    }
+
+    public static void removeListener(EventConsumer eventConsumer, String... eventTypes) {
+        synchronized (lock) {
+            registry.set(registry.get().withoutListener(eventConsumer, eventTypes));
+        }
+    }
+
+    public static void removeListener(EventConsumer eventConsumer) {
+        synchronized (lock) {
+            registry.set(registry.get().withoutListener(eventConsumer));
+        }
+    }
+
+    public static void dispatchAsynchronously(int partitions, int queueCapacity, SaturationPolicy saturationPolicy) {
+        PartitionedDispatch previous;
         synchronized (lock) {
-            for (Event event : events) {
-                listeners.get(event.eventType())
-                         .forEach(eventConsumer -> eventConsumer.consume(event));
+            previous = partitionedDispatch;
+            partitionedDispatch = new PartitionedDispatch(partitions, queueCapacity, saturationPolicy);
+        }
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    public static void dispatchSynchronously() {
+        PartitionedDispatch previous;
+        synchronized (lock) {
+            previous = partitionedDispatch;
+            partitionedDispatch = null;
+        }
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    public static int[] queueDepths() {
+        PartitionedDispatch dispatch = partitionedDispatch;
+        return dispatch == null ? new int[0] : dispatch.queueDepths();
+    }
+
+    public static long droppedBatches() {
+        PartitionedDispatch dispatch = partitionedDispatch;
+        return dispatch == null ? 0 : dispatch.droppedBatches();
+    }
+
+    public static void sendEvents(Events<?> events) {
+        PartitionedDispatch dispatch = partitionedDispatch;
+        if (dispatch == null) {
+            deliver(events);
+        } else if (metrics().enabled()) {
+            long start = metrics().startTimer();
+            dispatch.dispatch(events, batch -> {
+                metrics().stopTimer(DISPATCH_LAG, start);
+                deliver(batch);
+            });
+        } else {
+            dispatch.dispatch(events, EventDispatcher::deliver);
+        }
+    }
+
+    private static void deliver(Events<?> events) {
+        Metrics metrics = metrics();
+        Map<BatchEventConsumer, List<Event>> batches = null;
+        for (Event event : events) {
+            for (EventConsumer eventConsumer : consumersOf(event)) {
+                if (eventConsumer instanceof BatchEventConsumer) {
+                    if (batches == null) {
+                        batches = new LinkedHashMap<>();
+                    }
+                    batches.computeIfAbsent((BatchEventConsumer) eventConsumer, consumer -> new ArrayList<>()).add(event);
+                } else {
+                    long start = metrics.startTimer();
+                    eventConsumer.consume(event);
+                    metrics.stopTimer(DISPATCH_CONSUME, eventConsumer.getClass().getName(), start);
+                }
             }
         }
+
+        if (batches != null) {
+            batches.forEach((consumer, batch) -> {
+                long start = metrics.startTimer();
+                consumer.consumeBatch(batch);
+                metrics.stopTimer(DISPATCH_CONSUME, consumer.getClass().getName(), start);
+            });
+        }
+    }
+
+    private static EventConsumer[] consumersOf(Event event) {
+        ListenerRegistry current = registry.get();
+        EventConsumer[] consumers = current.consumersOf(event);
+        if (consumers != null) {
+            return consumers;
+        }
+
+        ListenerRegistry indexed = current.withEnumType(event.typeKey().getDeclaringClass());
+        registry.compareAndSet(current, indexed);
+        return indexed.consumersOf(event);
     }
 }
@@ -1,11 +1,37 @@
 package com.zenika.poc.share;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
 public interface EventRepository<EVENT extends Event> {
 
-    Events<EVENT> events(String aggregateId);
+    int ANY_VERSION = -1;
+
+    int NO_STREAM = 0;
+
+    Events<EVENT> events(AggregateId aggregateId);
+
+    Events<EVENT> events(AggregateId aggregateId, int fromVersion);
+
+    Stream<EVENT> eventStream(AggregateId aggregateId, int fromVersion, int toVersion);
+
+    default Stream<EVENT> eventStream(AggregateId aggregateId) {
+        return eventStream(aggregateId, 0, Integer.MAX_VALUE);
+    }
+
+    int version(AggregateId aggregateId);
+
+    Set<AggregateId> aggregateIds();
+
+    long headPosition();
+
+    List<EVENT> readAll(long fromPosition, int maxCount);
 
     void addEvents(Events<EVENT> events);
 
+    void addEvents(Events<EVENT> events, int expectedVersion);
+
     void clearAllEvents();
 
 }
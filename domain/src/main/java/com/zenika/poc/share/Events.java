@@ -19,9 +19,11 @@ public class Events<EVENT extends Event> implements Iterable<EVENT> {
         return new Events<>(event);
     }
 
-    private final List<EVENT> events;
+    private List<EVENT> events;
 
-    private String aggregateId;
+    private AggregateId aggregateId;
+
+    private boolean shared;
 
     private Events() {
         this(new ArrayList<>());
@@ -32,19 +34,14 @@ public class Events<EVENT extends Event> implements Iterable<EVENT> {
     }
 
     public Events(List<EVENT> events) {
-        long distinctAggregateId = events.stream()
-                                         .map(event -> event.aggregateId)
-                                         .distinct()
-                                         .count();
-
-        checkArgument(distinctAggregateId == 0 || distinctAggregateId == 1,
-                      "Only event associated to the same aggregate can be grouped");
+        AggregateId aggregateId = events.isEmpty() ? null : events.get(0).aggregateId;
+        for (EVENT event : events) {
+            checkArgument(Objects.equals(aggregateId, event.aggregateId),
+                          "Only event associated to the same aggregate can be grouped");
+        }
 
         this.events = events;
-        this.aggregateId = events.stream()
-                                 .findFirst()
-                                 .map(event -> event.aggregateId)
-                                 .orElse(null);
+        this.aggregateId = aggregateId;
     }
 
     public void add(EVENT event) {
@@ -55,25 +52,56 @@ public class Events<EVENT extends Event> implements Iterable<EVENT> {
                           "Only event associated to the same aggregate can be grouped");
         }
 
-        events.add(event);
+        writableEvents(1).add(event);
+    }
+
+    public void addAll(Events<EVENT> that) {
+        if (that.events.isEmpty()) {
+            return;
+        }
+
+        if (aggregateId == null) {
+            aggregateId = that.aggregateId;
+        } else {
+            checkArgument(Objects.equals(aggregateId, that.aggregateId),
+                          "Only event associated to the same aggregate can be grouped");
+        }
+
+        if (events.isEmpty()) {
+            events = that.events;
+            shared = true;
+            that.shared = true;
+        } else {
+            writableEvents(that.events.size()).addAll(that.events);
+        }
     }
 
-    public void addAll(Events<EVENT> events) {
-        events.stream().forEach(this::add);
+    public int size() {
+        return events.size();
     }
 
     public Stream<EVENT> stream() {
         return events.stream();
     }
 
-    public String aggregateId() {
+    public AggregateId aggregateId() {
         return aggregateId;
     }
 
-    public void setAggregateId(String aggregateId) {
+    public void setAggregateId(AggregateId aggregateId) {
         this.aggregateId = aggregateId;
     }
 
+    private List<EVENT> writableEvents(int added) {
+        if (shared) {
+            List<EVENT> copy = new ArrayList<>(events.size() + Math.max(added, events.size() >> 1));
+            copy.addAll(events);
+            events = copy;
+            shared = false;
+        }
+        return events;
+    }
+
     @Override
     public Iterator<EVENT> iterator() {
         return events.iterator();
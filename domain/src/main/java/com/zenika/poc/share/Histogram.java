@@ -0,0 +1,7 @@
+package com.zenika.poc.share;
+
+public interface Histogram {
+
+    void record(long value);
+
+}
@@ -0,0 +1,80 @@
+package com.zenika.poc.share;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public final class Interner<T> {
+
+    public interface Key<T> {
+
+        int hash();
+
+        boolean matches(T value);
+
+        T create();
+
+    }
+
+    private final AtomicReferenceArray<T> values;
+
+    private final int mask;
+
+    private final LongAdder hits;
+
+    private final LongAdder misses;
+
+    public Interner(int capacity) {
+        checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1, "Capacity must be a positive power of two");
+        this.values = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    public T intern(T value) {
+        int slot = slotOf(value.hashCode());
+        T cached = values.get(slot);
+        if (value.equals(cached)) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        values.lazySet(slot, value);
+        return value;
+    }
+
+    public T intern(Key<T> key) {
+        int slot = slotOf(key.hash());
+        T cached = values.get(slot);
+        if (cached != null && key.matches(cached)) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        T value = key.create();
+        values.lazySet(slot, value);
+        return value;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 1 : (double) hits / total;
+    }
+
+    private int slotOf(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,100 @@
+package com.zenika.poc.share;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+final class ListenerRegistry {
+
+    static final EventConsumer[] NO_CONSUMER = new EventConsumer[0];
+
+    static ListenerRegistry emptyRegistry() {
+        return new ListenerRegistry(new HashMap<>(), new Class<?>[0]);
+    }
+
+    private final Map<String, EventConsumer[]> byName;
+
+    private final Class<?>[] enumTypes;
+
+    private final EventConsumer[][][] byOrdinal;
+
+    private ListenerRegistry(Map<String, EventConsumer[]> byName, Class<?>[] enumTypes) {
+        this.byName = byName;
+        this.enumTypes = enumTypes;
+        this.byOrdinal = new EventConsumer[enumTypes.length][][];
+        for (int i = 0; i < enumTypes.length; i++) {
+            Object[] constants = enumTypes[i].getEnumConstants();
+            byOrdinal[i] = new EventConsumer[constants.length][];
+            for (Object constant : constants) {
+                Enum<?> type = (Enum<?>) constant;
+                byOrdinal[i][type.ordinal()] = byName.getOrDefault(type.name(), NO_CONSUMER);
+            }
+        }
+    }
+
+    EventConsumer[] consumersOf(Event event) {
+        Enum<?> type = event.typeKey();
+        if (type == null) {
+            return byName.getOrDefault(event.eventType(), NO_CONSUMER);
+        }
+
+        Class<?> enumType = type.getDeclaringClass();
+        for (int i = 0; i < enumTypes.length; i++) {
+            if (enumTypes[i] == enumType) {
+                return byOrdinal[i][type.ordinal()];
+            }
+        }
+        return null;
+    }
+
+    ListenerRegistry withEnumType(Class<?> enumType) {
+        Class<?>[] enumTypes = Arrays.copyOf(this.enumTypes, this.enumTypes.length + 1);
+        enumTypes[this.enumTypes.length] = enumType;
+        return new ListenerRegistry(byName, enumTypes);
+    }
+
+    ListenerRegistry withListener(EventConsumer eventConsumer, String... eventTypes) {
+        Map<String, EventConsumer[]> byName = new HashMap<>(this.byName);
+        for (String eventType : eventTypes) {
+            EventConsumer[] consumers = byName.getOrDefault(eventType, NO_CONSUMER);
+            if (indexOf(consumers, eventConsumer) < 0) {
+                consumers = Arrays.copyOf(consumers, consumers.length + 1);
+                consumers[consumers.length - 1] = eventConsumer;
+                byName.put(eventType, consumers);
+            }
+        }
+        return new ListenerRegistry(byName, enumTypes);
+    }
+
+    ListenerRegistry withoutListener(EventConsumer eventConsumer, String... eventTypes) {
+        Map<String, EventConsumer[]> byName = new HashMap<>(this.byName);
+        for (String eventType : eventTypes) {
+            EventConsumer[] consumers = byName.getOrDefault(eventType, NO_CONSUMER);
+            int index = indexOf(consumers, eventConsumer);
+            if (index >= 0) {
+                EventConsumer[] remaining = new EventConsumer[consumers.length - 1];
+                System.arraycopy(consumers, 0, remaining, 0, index);
+                System.arraycopy(consumers, index + 1, remaining, index, remaining.length - index);
+                if (remaining.length == 0) {
+                    byName.remove(eventType);
+                } else {
+                    byName.put(eventType, remaining);
+                }
+            }
+        }
+        return new ListenerRegistry(byName, enumTypes);
+    }
+
+    ListenerRegistry withoutListener(EventConsumer eventConsumer) {
+        return withoutListener(eventConsumer, byName.keySet().toArray(new String[0]));
+    }
+
+    private static int indexOf(EventConsumer[] consumers, EventConsumer eventConsumer) {
+        for (int i = 0; i < consumers.length; i++) {
+            if (consumers[i].equals(eventConsumer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
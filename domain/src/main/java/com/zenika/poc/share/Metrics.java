@@ -0,0 +1,57 @@
+package com.zenika.poc.share;
+
+import java.util.function.LongSupplier;
+
+public interface Metrics {
+
+    Metrics NO_METRICS = new NoMetrics();
+
+    String REPOSITORY_APPEND = "repository.append";
+
+    String REPOSITORY_APPENDED_EVENTS = "repository.appended.events";
+
+    String REPOSITORY_READ = "repository.read";
+
+    String REPOSITORY_READ_EVENTS = "repository.read.events";
+
+    String REPOSITORY_READ_ALL = "repository.read.all";
+
+    String AGGREGATE_REPLAY = "aggregate.replay";
+
+    String AGGREGATE_REPLAYED_EVENTS = "aggregate.replayed.events";
+
+    String AGGREGATE_WARM_UP = "aggregate.warm.up";
+
+    String AGGREGATE_WARMED_UP = "aggregate.warmed.up";
+
+    String DISPATCH_CONSUME = "dispatch.consume";
+
+    String DISPATCH_LAG = "dispatch.lag";
+
+    String DISPATCH_QUEUE_DEPTH = "dispatch.queue.depth";
+
+    String DISPATCH_DROPPED_BATCHES = "dispatch.dropped.batches";
+
+    boolean enabled();
+
+    Counter counter(String name);
+
+    Histogram histogram(String name);
+
+    Histogram histogram(String name, String tag);
+
+    void gauge(String name, LongSupplier value);
+
+    default long startTimer() {
+        return System.nanoTime();
+    }
+
+    default void stopTimer(String name, long start) {
+        histogram(name).record(System.nanoTime() - start);
+    }
+
+    default void stopTimer(String name, String tag, long start) {
+        histogram(name, tag).record(System.nanoTime() - start);
+    }
+
+}
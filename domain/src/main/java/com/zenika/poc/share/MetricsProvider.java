@@ -0,0 +1,32 @@
+package com.zenika.poc.share;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import static com.zenika.poc.share.Metrics.NO_METRICS;
+
+public class MetricsProvider {
+
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    private static volatile Metrics metrics = NO_METRICS;
+
+    public static Metrics metrics() {
+        return metrics;
+    }
+
+    public static synchronized void useMetrics(Metrics metrics) {
+        MetricsProvider.metrics = metrics;
+        gauges.forEach(metrics::gauge);
+    }
+
+    public static synchronized void useNoMetrics() {
+        metrics = NO_METRICS;
+    }
+
+    public static synchronized void registerGauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+        metrics.gauge(name, value);
+    }
+}
@@ -0,0 +1,49 @@
+package com.zenika.poc.share;
+
+import java.util.function.LongSupplier;
+
+final class NoMetrics implements Metrics {
+
+    private static final Counter NO_COUNTER = value -> {
+    };
+
+    private static final Histogram NO_HISTOGRAM = value -> {
+    };
+
+    @Override
+    public boolean enabled() {
+        return false;
+    }
+
+    @Override
+    public Counter counter(String name) {
+        return NO_COUNTER;
+    }
+
+    @Override
+    public Histogram histogram(String name) {
+        return NO_HISTOGRAM;
+    }
+
+    @Override
+    public Histogram histogram(String name, String tag) {
+        return NO_HISTOGRAM;
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+    }
+
+    @Override
+    public long startTimer() {
+        return 0;
+    }
+
+    @Override
+    public void stopTimer(String name, long start) {
+    }
+
+    @Override
+    public void stopTimer(String name, String tag, long start) {
+    }
+}
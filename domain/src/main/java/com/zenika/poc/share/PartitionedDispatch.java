@@ -0,0 +1,89 @@
+package com.zenika.poc.share;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.zenika.poc.share.Exceptions.uncheck;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+class PartitionedDispatch {
+
+    private final ThreadPoolExecutor[] partitions;
+
+    private final LongAdder dropped;
+
+    PartitionedDispatch(int partitionCount, int queueCapacity, SaturationPolicy saturationPolicy) {
+        checkArgument(partitionCount > 0, "Partition count must be positive");
+        checkArgument(queueCapacity > 0, "Queue capacity must be positive");
+        this.dropped = new LongAdder();
+        this.partitions = new ThreadPoolExecutor[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            int partition = i;
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0, MILLISECONDS,
+                                                   new ArrayBlockingQueue<>(queueCapacity),
+                                                   runnable -> {
+                                                       Thread thread = new Thread(runnable, "event-dispatcher-" + partition);
+                                                       thread.setDaemon(true);
+                                                       return thread;
+                                                   },
+                                                   rejectionHandler(saturationPolicy));
+        }
+    }
+
+    void dispatch(Events<?> events, Consumer<Events<?>> delivery) {
+        AggregateId aggregateId = events.aggregateId();
+        int partition = aggregateId == null ? 0 : Math.floorMod(aggregateId.hashCode(), partitions.length);
+        partitions[partition].execute(() -> delivery.accept(events));
+    }
+
+    int[] queueDepths() {
+        int[] depths = new int[partitions.length];
+        for (int i = 0; i < partitions.length; i++) {
+            depths[i] = partitions[i].getQueue().size();
+        }
+        return depths;
+    }
+
+    long droppedBatches() {
+        return dropped.sum();
+    }
+
+    void shutdown() {
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        for (ThreadPoolExecutor partition : partitions) {
+            uncheck(() -> partition.awaitTermination(30, SECONDS));
+        }
+    }
+
+    private RejectedExecutionHandler rejectionHandler(SaturationPolicy saturationPolicy) {
+        switch (saturationPolicy) {
+            case BLOCK:
+                return (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        dropped.increment();
+                    } else {
+                        uncheck(() -> executor.getQueue().put(runnable));
+                    }
+                };
+            case DROP:
+                return (runnable, executor) -> dropped.increment();
+            case CALLER_RUNS:
+                return (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        dropped.increment();
+                    } else {
+                        runnable.run();
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unexpected saturation policy " + saturationPolicy);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.zenika.poc.share;
+
+public interface Projection extends EventConsumer {
+
+    String[] eventTypes();
+
+    void clear();
+
+}
@@ -0,0 +1,11 @@
+package com.zenika.poc.share;
+
+public enum SaturationPolicy {
+    BLOCK,
+    DROP,
+    /**
+     * Delivers the batch on the sending thread. Batches still queued for the same aggregate may then be delivered
+     * after it, so per-aggregate ordering is not preserved while the partition is saturated.
+     */
+    CALLER_RUNS,
+}
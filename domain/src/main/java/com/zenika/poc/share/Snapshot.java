@@ -0,0 +1,44 @@
+package com.zenika.poc.share;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+public class Snapshot<STATE> {
+
+    public final AggregateId aggregateId;
+
+    public final int version;
+
+    public final STATE state;
+
+    public Snapshot(AggregateId aggregateId, int version, STATE state) {
+        this.aggregateId = aggregateId;
+        this.version = version;
+        this.state = state;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Snapshot)) return false;
+        Snapshot<?> that = (Snapshot<?>) o;
+        return version == that.version &&
+               Objects.equals(aggregateId, that.aggregateId) &&
+               Objects.equals(state, that.state);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(aggregateId, version, state);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("aggregateId", aggregateId)
+                          .add("version", version)
+                          .add("state", state)
+                          .toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.zenika.poc.share;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public interface SnapshotPolicy {
+
+    static SnapshotPolicy everyEvents(int eventCount) {
+        checkArgument(eventCount > 0, "Snapshot interval must be positive");
+        return (previousVersion, newVersion) -> previousVersion / eventCount != newVersion / eventCount;
+    }
+
+    static SnapshotPolicy never() {
+        return (previousVersion, newVersion) -> false;
+    }
+
+    boolean shouldSnapshot(int previousVersion, int newVersion);
+
+}
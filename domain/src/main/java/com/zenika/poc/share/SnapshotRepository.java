@@ -0,0 +1,11 @@
+package com.zenika.poc.share;
+
+public interface SnapshotRepository<STATE> {
+
+    Snapshot<STATE> latestSnapshot(AggregateId aggregateId);
+
+    void saveSnapshot(Snapshot<STATE> snapshot);
+
+    void clearAllSnapshots();
+
+}
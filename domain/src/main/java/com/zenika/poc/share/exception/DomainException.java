@@ -0,0 +1,12 @@
+package com.zenika.poc.share.exception;
+
+public abstract class DomainException extends RuntimeException {
+
+    public static final String STACK_TRACES_PROPERTY = "poc.domain.exceptions.stackTraces";
+
+    private static final boolean STACK_TRACES = Boolean.parseBoolean(System.getProperty(STACK_TRACES_PROPERTY, "true"));
+
+    protected DomainException() {
+        super(null, null, STACK_TRACES, STACK_TRACES);
+    }
+}
@@ -0,0 +1,21 @@
+package com.zenika.poc.share.exception;
+
+import com.zenika.poc.share.AggregateId;
+
+import static java.lang.String.format;
+
+public class WrongExpectedVersionException extends RuntimeException {
+
+    public final AggregateId aggregateId;
+
+    public final int expectedVersion;
+
+    public final int actualVersion;
+
+    public WrongExpectedVersionException(AggregateId aggregateId, int expectedVersion, int actualVersion) {
+        super(format("Stream %s is at version %d, expected %d", aggregateId, actualVersion, expectedVersion));
+        this.aggregateId = aggregateId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+}
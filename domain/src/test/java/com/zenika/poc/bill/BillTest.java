@@ -3,7 +3,9 @@ package com.zenika.poc.bill;
 import com.zenika.poc.bill.exception.BillClosedException;
 import com.zenika.poc.bill.exception.UnexpectedPaymentException;
 import com.zenika.poc.bill.exception.UnpaidBillException;
+import com.zenika.poc.bill.BillEvent.OrderPaid;
 import com.zenika.poc.share.Events;
+import com.zenika.poc.share.Snapshot;
 import org.assertj.core.api.StrictAssertions;
 import org.junit.Test;
 
@@ -11,6 +13,7 @@ import static com.zenika.poc.bill.Bill.createBill;
 import static com.zenika.poc.bill.Bill.loadBill;
 import static com.zenika.poc.bill.Order.emptyOrder;
 import static com.zenika.poc.bill.Order.order;
+import static com.zenika.poc.share.Events.singletonEvents;
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -128,6 +131,36 @@ public class BillTest {
         assertThat(loadBill(doubleEvents(bill.events()))).isEqualTo(bill);
     }
 
+    @Test
+    public void should_load_bill_events_as_history() {
+        // Given
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 2));
+
+        // When
+        Bill loaded = loadBill(bill.events());
+
+        // Then
+        assertThat(loaded.events()).isEmpty();
+        assertThat(loaded.version()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_load_bill_from_snapshot() {
+        // Given
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 2));
+        Snapshot<BillState> snapshot = bill.snapshot();
+        bill.pay(order(COFFEE, 2));
+
+        // When
+        Bill loaded = loadBill(snapshot, singletonEvents(new OrderPaid(bill.id, order(COFFEE, 2))));
+
+        // Then
+        assertThat(loaded).isEqualTo(bill);
+        assertThat(loaded.version()).isEqualTo(bill.version());
+    }
+
     private Events<BillEvent> doubleEvents(Events<BillEvent> events) {
         return new Events<>(events.stream()
                                   .flatMap(event -> asList(event, event).stream())
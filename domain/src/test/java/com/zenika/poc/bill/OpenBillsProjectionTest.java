@@ -0,0 +1,49 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.share.EventDispatcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.zenika.poc.bill.Bill.createBill;
+import static com.zenika.poc.bill.Order.order;
+import static com.zenika.poc.bill.OrderTest.COFFEE;
+import static com.zenika.poc.share.EventDispatcher.sendEvents;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenBillsProjectionTest {
+
+    private final OpenBillsProjection projection = new OpenBillsProjection();
+
+    @Before
+    public void subscribe() {
+        EventDispatcher.addProjection(projection);
+    }
+
+    @After
+    public void unsubscribe() {
+        EventDispatcher.removeListener(projection);
+    }
+
+    @Test
+    public void should_list_open_and_unpaid_bills() {
+        // Given
+        Bill unpaid = createBill();
+        unpaid.order(order(COFFEE, 2));
+        Bill paid = createBill();
+        paid.order(order(COFFEE, 1));
+        paid.pay(order(COFFEE, 1));
+        Bill closed = createBill();
+        closed.close();
+
+        // When
+        sendEvents(unpaid.events());
+        sendEvents(paid.events());
+        sendEvents(closed.events());
+
+        // Then
+        assertThat(projection.openBills()).containsOnly(unpaid.id, paid.id);
+        assertThat(projection.unpaidBills()).containsOnly(unpaid.id);
+        assertThat(projection.isOpen(closed.id)).isFalse();
+    }
+}
@@ -115,4 +115,52 @@ public class OrderTest {
         assertThat(contains).isFalse();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void should_be_equal_whatever_the_history_of_large_orders() {
+        // Given
+        Order ascending = emptyOrder();
+        Order descending = emptyOrder();
+        for (int i = 0; i < 2000; i++) {
+            ascending = ascending.add(new Item("item-" + i, i), i % 3 + 1);
+            descending = descending.add(new Item("item-" + (1999 - i), 1999 - i), (1999 - i) % 3 + 1);
+        }
+
+        // When
+        Order removed = ascending.add(CAKE, 1).remove(CAKE, 1);
+
+        // Then
+        assertThat(descending).isEqualTo(ascending);
+        assertThat(removed).isEqualTo(ascending);
+        assertThat(removed.hashCode()).isEqualTo(descending.hashCode());
+        assertThat(removed.size()).isEqualTo(2000);
+    }
+
+    @Test
+    public void should_contains_after_removing() {
+        // Given
+        Order ordered = order(COFFEE, 3, CAKE, 1);
+        Order paid = order(COFFEE, 1);
+
+        // When
+        boolean containsRest = ordered.containsAfterRemoving(paid, order(COFFEE, 2, CAKE, 1));
+        boolean containsMore = ordered.containsAfterRemoving(paid, order(COFFEE, 3));
+
+        // Then
+        assertThat(containsRest).isTrue();
+        assertThat(containsMore).isFalse();
+    }
+
+    @Test
+    public void should_register_each_distinct_item_once() {
+        // Given
+        order(COFFEE, 1);
+        int size = ItemTable.size();
+
+        // When
+        order(new Item("coffee", 1.5), 2, new Item("registered once", 0.5), 1);
+        order(new Item("registered once", 0.5), 3);
+
+        // Then
+        assertThat(ItemTable.size()).isEqualTo(size + 1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.zenika.poc.bill;
+
+import org.junit.Test;
+
+import static com.zenika.poc.bill.Bill.createBill;
+import static com.zenika.poc.bill.Order.order;
+import static com.zenika.poc.bill.OrderTest.CAKE;
+import static com.zenika.poc.bill.OrderTest.COFFEE;
+import static org.assertj.core.api.StrictAssertions.assertThat;
+
+public class OutstandingAmountProjectionTest {
+
+    private final OutstandingAmountProjection projection = new OutstandingAmountProjection();
+
+    @Test
+    public void should_compute_outstanding_amount_of_bill() {
+        // Given
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 2, CAKE, 1));
+        bill.pay(order(COFFEE, 1));
+
+        // When
+        bill.events().forEach(projection::consume);
+
+        // Then
+        assertThat(projection.outstandingAmount(bill.id)).isEqualTo(1.5 + 3);
+    }
+
+    @Test
+    public void should_forget_closed_bill() {
+        // Given
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 1));
+        bill.pay(order(COFFEE, 1));
+        bill.close();
+
+        // When
+        bill.events().forEach(projection::consume);
+
+        // Then
+        assertThat(projection.outstandingAmount(bill.id)).isEqualTo(0.0);
+    }
+}
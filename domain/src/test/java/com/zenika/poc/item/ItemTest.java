@@ -1,13 +1,16 @@
 package com.zenika.poc.item;
 
+import com.zenika.poc.item.ItemEvent.ItemPriceChanged;
 import com.zenika.poc.item.exception.InvalidItemNameException;
 import com.zenika.poc.item.exception.NegativeItemNumberException;
 import com.zenika.poc.item.exception.NegativePriceException;
 import com.zenika.poc.item.exception.UnknownPendingReservationException;
 import com.zenika.poc.share.Events;
+import com.zenika.poc.share.Snapshot;
 import org.junit.Test;
 
 import static com.zenika.poc.item.Item.createStock;
+import static com.zenika.poc.share.Events.singletonEvents;
 import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.StrictAssertions.assertThat;
@@ -102,6 +105,22 @@ public class ItemTest {
         assertThat(Item.loadStock(doubleEvents(item.events()))).isEqualTo(item);
     }
 
+    @Test
+    public void should_load_stock_from_snapshot() {
+        // Given
+        Item item = coffee();
+        item.add(10);
+        Snapshot<ItemState> snapshot = item.snapshot();
+        item.changePrice(2);
+
+        // When
+        Item loaded = Item.loadStock(snapshot, singletonEvents(new ItemPriceChanged(item.id, 2)));
+
+        // Then
+        assertThat(loaded).isEqualTo(item);
+        assertThat(loaded.version()).isEqualTo(item.version());
+    }
+
     private Item coffee() {
         return createStock("coffee", 10, 1);
     }
@@ -0,0 +1,41 @@
+package com.zenika.poc.item;
+
+import com.zenika.poc.item.exception.UnknownItemException;
+import org.junit.Test;
+
+import static com.zenika.poc.item.Item.createStock;
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static org.assertj.core.api.StrictAssertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.catchThrowable;
+
+public class StockProjectionTest {
+
+    private final StockProjection projection = new StockProjection();
+
+    @Test
+    public void should_follow_stock_and_price_of_items() {
+        // Given
+        Item item = createStock("coffee", 10, 1);
+        item.add(5);
+        item.remove(3);
+        item.changePrice(1.2);
+        item.changeName("espresso");
+
+        // When
+        item.events().forEach(projection::consume);
+
+        // Then
+        assertThat(projection.item(item.id)).isEqualTo(new ItemState("espresso", 12, 1.2));
+        assertThat(projection.stockOf(item.id)).isEqualTo(12);
+        assertThat(projection.priceOf(item.id)).isEqualTo(1.2);
+    }
+
+    @Test
+    public void should_fail_when_item_is_unknown() {
+        // Given When
+        Throwable throwable = catchThrowable(() -> projection.stockOf(randomAggregateId()));
+
+        // Then
+        assertThat(throwable).isInstanceOf(UnknownItemException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.zenika.poc.share;
+
+import org.junit.Test;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.catchThrowable;
+
+public class AggregateIdTest {
+
+    @Test
+    public void should_parse_canonical_form() {
+        // Given
+        AggregateId id = randomAggregateId();
+
+        // When
+        AggregateId parsed = aggregateId(id.toString());
+
+        // Then
+        assertThat(parsed).isEqualTo(id);
+        assertThat(parsed.hashCode()).isEqualTo(id.hashCode());
+    }
+
+    @Test
+    public void should_format_as_uuid() {
+        // When
+        String value = aggregateId(0x0123456789ABCDEFL, 0xFEDCBA9876543210L).toString();
+
+        // Then
+        assertThat(value).isEqualTo("01234567-89ab-cdef-fedc-ba9876543210");
+    }
+
+    @Test
+    public void should_not_parse_malformed_id() {
+        // When
+        Throwable throwable = catchThrowable(() -> aggregateId("not-an-id"));
+
+        // Then
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
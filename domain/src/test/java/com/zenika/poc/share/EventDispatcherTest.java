@@ -0,0 +1,207 @@
+package com.zenika.poc.share;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventDispatcherTest {
+
+    private static final AggregateId ID = aggregateId(0, 1);
+
+    private final List<EventConsumer> listeners = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        EventDispatcher.dispatchSynchronously();
+        listeners.forEach(EventDispatcher::removeListener);
+    }
+
+    @Test
+    public void should_preserve_order_per_aggregate_when_dispatching_asynchronously() throws Exception {
+        // Given
+        EventDispatcher.dispatchAsynchronously(4, 1024, SaturationPolicy.BLOCK);
+        int aggregates = 10;
+        int eventsPerAggregate = 100;
+        CountDownLatch consumed = new CountDownLatch(aggregates * eventsPerAggregate);
+        Map<AggregateId, List<Integer>> received = new ConcurrentHashMap<>();
+        EventDispatcher.addListener(listen(event -> {
+            SequencedEvent sequencedEvent = (SequencedEvent) event;
+            received.computeIfAbsent(event.aggregateId, id -> synchronizedList(new ArrayList<>())).add(sequencedEvent.sequence);
+            consumed.countDown();
+        }), "ordered");
+
+        // When
+        for (int i = 0; i < eventsPerAggregate; i++) {
+            for (int a = 0; a < aggregates; a++) {
+                EventDispatcher.sendEvents(singletonEvents(new SequencedEvent(aggregateId(0, a), "ordered", i)));
+            }
+        }
+
+        // Then
+        assertThat(consumed.await(10, SECONDS)).isTrue();
+        assertThat(received).hasSize(aggregates);
+        received.values().forEach(sequences -> assertThat(sequences).isSorted().hasSize(eventsPerAggregate));
+    }
+
+    @Test
+    public void should_drop_events_when_partition_is_saturated() throws Exception {
+        // Given
+        EventDispatcher.dispatchAsynchronously(1, 1, SaturationPolicy.DROP);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        EventDispatcher.addListener(listen(event -> {
+            started.countDown();
+            Exceptions.uncheck(() -> release.await());
+        }), "saturating");
+
+        // When
+        EventDispatcher.sendEvents(singletonEvents(new SequencedEvent(ID, "saturating", 0)));
+        started.await(10, SECONDS);
+        for (int i = 1; i < 5; i++) {
+            EventDispatcher.sendEvents(singletonEvents(new SequencedEvent(ID, "saturating", i)));
+        }
+
+        // Then
+        assertThat(EventDispatcher.queueDepths()).containsExactly(1);
+        assertThat(EventDispatcher.droppedBatches()).isEqualTo(3);
+        release.countDown();
+    }
+
+    @Test
+    public void should_run_on_caller_when_partition_is_saturated() throws Exception {
+        // Given
+        EventDispatcher.dispatchAsynchronously(1, 1, SaturationPolicy.CALLER_RUNS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = synchronizedList(new ArrayList<>());
+        EventDispatcher.addListener(listen(event -> {
+            threads.add(Thread.currentThread().getName());
+            if (((SequencedEvent) event).sequence == 0) {
+                started.countDown();
+                Exceptions.uncheck(() -> release.await());
+            }
+        }), "caller_runs");
+
+        // When
+        EventDispatcher.sendEvents(singletonEvents(new SequencedEvent(ID, "caller_runs", 0)));
+        started.await(10, SECONDS);
+        EventDispatcher.sendEvents(singletonEvents(new SequencedEvent(ID, "caller_runs", 1)));
+        EventDispatcher.sendEvents(singletonEvents(new SequencedEvent(ID, "caller_runs", 2)));
+
+        // Then
+        assertThat(threads).contains(Thread.currentThread().getName());
+        release.countDown();
+    }
+
+    @Test
+    public void should_route_enum_typed_events_by_name() {
+        // Given
+        List<Event> received = new ArrayList<>();
+        EventConsumer consumer = received::add;
+        EventDispatcher.addListener(consumer, "ROUTED");
+        TypedEvent routed = new TypedEvent(ID, TestEventType.ROUTED);
+
+        // When
+        EventDispatcher.sendEvents(new Events<>(routed, new TypedEvent(ID, TestEventType.IGNORED)));
+
+        // Then
+        assertThat(received).containsExactly(routed);
+        EventDispatcher.removeListener(consumer);
+    }
+
+    @Test
+    public void should_not_notify_removed_listener() {
+        // Given
+        List<Event> received = new ArrayList<>();
+        EventConsumer consumer = received::add;
+        EventDispatcher.addListener(consumer, "REMOVED", "removed");
+        EventDispatcher.sendEvents(singletonEvents(new TypedEvent(ID, TestEventType.REMOVED)));
+
+        // When
+        EventDispatcher.removeListener(consumer, "REMOVED");
+        EventDispatcher.sendEvents(singletonEvents(new TypedEvent(ID, TestEventType.REMOVED)));
+        EventDispatcher.sendEvents(singletonEvents(new SequencedEvent(ID, "removed", 0)));
+
+        // Then
+        assertThat(received).hasSize(2);
+        EventDispatcher.removeListener(consumer);
+    }
+
+    @Test
+    public void should_deliver_whole_batch_to_batch_consumer() {
+        // Given
+        List<List<Event>> batches = new ArrayList<>();
+        BatchEventConsumer consumer = batches::add;
+        EventDispatcher.addListener(consumer, "ROUTED");
+        TypedEvent event1 = new TypedEvent(ID, TestEventType.ROUTED);
+        TypedEvent event2 = new TypedEvent(ID, TestEventType.ROUTED);
+
+        // When
+        EventDispatcher.sendEvents(new Events<>(event1, new TypedEvent(ID, TestEventType.IGNORED), event2));
+
+        // Then
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactly(event1, event2);
+        EventDispatcher.removeListener(consumer);
+    }
+
+    private EventConsumer listen(EventConsumer consumer) {
+        listeners.add(consumer);
+        return consumer;
+    }
+
+    private enum TestEventType {
+        ROUTED,
+        IGNORED,
+        REMOVED,
+    }
+
+    private static class TypedEvent extends Event {
+
+        private final TestEventType type;
+
+        public TypedEvent(AggregateId aggregateId, TestEventType type) {
+            super(aggregateId);
+            this.type = type;
+        }
+
+        @Override
+        public String eventType() {
+            return type.name();
+        }
+
+        @Override
+        public TestEventType typeKey() {
+            return type;
+        }
+    }
+
+    private static class SequencedEvent extends Event {
+
+        private final String eventType;
+
+        private final int sequence;
+
+        public SequencedEvent(AggregateId aggregateId, String eventType, int sequence) {
+            super(aggregateId);
+            this.eventType = eventType;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public String eventType() {
+            return eventType;
+        }
+    }
+}
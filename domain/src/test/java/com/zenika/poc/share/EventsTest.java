@@ -2,16 +2,22 @@ package com.zenika.poc.share;
 
 import org.junit.Test;
 
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.Events.emptyEvents;
 import static com.zenika.poc.share.Events.singletonEvents;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.StrictAssertions.catchThrowable;
 
 public class EventsTest {
 
+    private static final AggregateId ID = aggregateId(0, 1);
+
+    private static final AggregateId OTHER_ID = aggregateId(0, 2);
+
     @Test
     public void should_not_create_event_with_different_aggregate_id() {
         // When
-        Throwable throwable = catchThrowable(() -> new Events<>(new TestEvent("id_1"), new TestEvent("id_2")));
+        Throwable throwable = catchThrowable(() -> new Events<>(new TestEvent(ID), new TestEvent(OTHER_ID)));
 
         // Then
         assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
@@ -20,18 +26,49 @@ public class EventsTest {
     @Test
     public void should_not_add_event_with_different_aggregate_id() {
         // Given
-        Events<TestEvent> events = singletonEvents(new TestEvent("id"));
+        Events<TestEvent> events = singletonEvents(new TestEvent(ID));
 
         // When
-        Throwable throwable = catchThrowable(() -> events.add(new TestEvent("other_id")));
+        Throwable throwable = catchThrowable(() -> events.add(new TestEvent(OTHER_ID)));
 
         // Then
         assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    public void should_not_add_all_events_with_different_aggregate_id() {
+        // Given
+        Events<TestEvent> events = singletonEvents(new TestEvent(ID));
+
+        // When
+        Throwable throwable = catchThrowable(() -> events.addAll(singletonEvents(new TestEvent(OTHER_ID))));
+
+        // Then
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void should_copy_shared_events_on_write() {
+        // Given
+        TestEvent first = new TestEvent(ID);
+        TestEvent second = new TestEvent(ID);
+        Events<TestEvent> source = singletonEvents(first);
+        Events<TestEvent> events = emptyEvents();
+        events.addAll(source);
+
+        // When
+        events.add(second);
+        source.add(new TestEvent(ID));
+
+        // Then
+        assertThat(events).containsExactly(first, second);
+        assertThat(source).hasSize(2);
+        assertThat(events.aggregateId()).isEqualTo(ID);
+    }
+
     private static class TestEvent extends Event {
 
-        public TestEvent(String aggregateId) {
+        public TestEvent(AggregateId aggregateId) {
             super(aggregateId);
         }
 
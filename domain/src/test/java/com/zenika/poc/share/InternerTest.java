@@ -0,0 +1,87 @@
+package com.zenika.poc.share;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.catchThrowable;
+
+public class InternerTest {
+
+    @Test
+    public void should_return_canonical_instance() {
+        // Given
+        Interner<String> interner = new Interner<>(16);
+        String canonical = interner.intern(new String("coffee"));
+
+        // When
+        String interned = interner.intern(new String("coffee"));
+
+        // Then
+        assertThat(interned).isSameAs(canonical);
+        assertThat(interner.hits()).isEqualTo(1);
+        assertThat(interner.misses()).isEqualTo(1);
+        assertThat(interner.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void should_report_full_hit_rate_without_lookups() {
+        // When
+        Interner<String> interner = new Interner<>(16);
+
+        // Then
+        assertThat(interner.hitRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void should_create_value_from_key_on_miss_only() {
+        // Given
+        Interner<String> interner = new Interner<>(16);
+        String canonical = interner.intern(new String("tea"));
+
+        // When
+        String interned = interner.intern(new Interner.Key<String>() {
+            @Override
+            public int hash() {
+                return "tea".hashCode();
+            }
+
+            @Override
+            public boolean matches(String value) {
+                return value.equals("tea");
+            }
+
+            @Override
+            public String create() {
+                throw new AssertionError();
+            }
+        });
+
+        // Then
+        assertThat(interned).isSameAs(canonical);
+    }
+
+    @Test
+    public void should_evict_colliding_values() {
+        // Given
+        Interner<Integer> interner = new Interner<>(1);
+        interner.intern(1);
+
+        // When
+        interner.intern(2);
+        interner.intern(1);
+
+        // Then
+        assertThat(interner.hits()).isZero();
+        assertThat(interner.misses()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_reject_capacity_not_power_of_two() {
+        // When
+        Throwable throwable = catchThrowable(() -> new Interner<String>(3));
+
+        // Then
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.zenika.poc.share;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PartitionedDispatchTest {
+
+    @Test
+    public void should_deliver_batches_without_aggregate_id() throws Exception {
+        // Given
+        PartitionedDispatch dispatch = new PartitionedDispatch(4, 16, SaturationPolicy.BLOCK);
+        CountDownLatch delivered = new CountDownLatch(1);
+
+        // When
+        dispatch.dispatch(singletonEvents(new TestEvent()), events -> delivered.countDown());
+
+        // Then
+        assertThat(delivered.await(10, SECONDS)).isTrue();
+        dispatch.shutdown();
+    }
+
+    @Test
+    public void should_count_batches_discarded_after_shutdown() {
+        // Given
+        List<Events<?>> delivered = new ArrayList<>();
+        PartitionedDispatch blocking = new PartitionedDispatch(1, 16, SaturationPolicy.BLOCK);
+        PartitionedDispatch callerRuns = new PartitionedDispatch(1, 16, SaturationPolicy.CALLER_RUNS);
+        blocking.shutdown();
+        callerRuns.shutdown();
+
+        // When
+        blocking.dispatch(singletonEvents(new TestEvent()), delivered::add);
+        callerRuns.dispatch(singletonEvents(new TestEvent()), delivered::add);
+
+        // Then
+        assertThat(delivered).isEmpty();
+        assertThat(blocking.droppedBatches()).isEqualTo(1);
+        assertThat(callerRuns.droppedBatches()).isEqualTo(1);
+    }
+
+    private static class TestEvent extends Event {
+
+        private TestEvent() {
+            super(null);
+        }
+
+        @Override
+        public String eventType() {
+            return "test";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.zenika.poc.share.exception;
+
+import com.zenika.poc.bill.exception.BillClosedException;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static com.zenika.poc.share.exception.DomainException.STACK_TRACES_PROPERTY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DomainExceptionTest {
+
+    @Test
+    public void should_keep_stack_trace_by_default() {
+        // When
+        DomainException exception = new BillClosedException();
+
+        // Then
+        assertThat(exception.getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    public void should_create_stackless_exception_when_stack_traces_are_off() throws Exception {
+        // Given
+        URL classes = DomainException.class.getProtectionDomain().getCodeSource().getLocation();
+        String previous = System.setProperty(STACK_TRACES_PROPERTY, "false");
+
+        // When
+        Throwable exception;
+        try (URLClassLoader isolated = new URLClassLoader(new URL[]{classes}, null)) {
+            exception = (Throwable) isolated.loadClass(BillClosedException.class.getName()).newInstance();
+        } finally {
+            if (previous == null) {
+                System.clearProperty(STACK_TRACES_PROPERTY);
+            } else {
+                System.setProperty(STACK_TRACES_PROPERTY, previous);
+            }
+        }
+
+        // Then
+        assertThat(exception.getStackTrace()).isEmpty();
+        exception.addSuppressed(new IllegalStateException());
+        assertThat(exception.getSuppressed()).isEmpty();
+    }
+}
@@ -0,0 +1,214 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.bill.BillEvent.BillClosed;
+import com.zenika.poc.bill.BillEvent.BillEventType;
+import com.zenika.poc.bill.BillEvent.BillOpened;
+import com.zenika.poc.bill.BillEvent.OrderPaid;
+import com.zenika.poc.bill.BillEvent.OrderTaken;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.EventCodec;
+import com.zenika.poc.share.Interner;
+import com.zenika.poc.share.StreamCodec;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.zenika.poc.bill.Item.interner;
+import static com.zenika.poc.bill.Order.emptyOrder;
+import static com.zenika.poc.share.ByteBuffers.getSignedVarInt;
+import static com.zenika.poc.share.ByteBuffers.getString;
+import static com.zenika.poc.share.ByteBuffers.getVarInt;
+import static com.zenika.poc.share.ByteBuffers.putSignedVarInt;
+import static com.zenika.poc.share.ByteBuffers.putString;
+import static com.zenika.poc.share.ByteBuffers.putVarInt;
+import static java.lang.String.format;
+
+public class BillEventCodec implements EventCodec<BillEvent> {
+
+    private static final BillEventType[] TYPES = BillEventType.values();
+
+    private static final int KEYFRAME_INTERVAL = 16;
+
+    private static final Interner<String> NAMES = new Interner<>(4096);
+
+    @Override
+    public void encode(BillEvent event, ByteBuffer buffer) {
+        putVarInt(buffer, event.type.ordinal());
+        switch (event.type) {
+            case BILL_OPENED:
+            case BILL_CLOSED:
+                break;
+            case ORDER_TAKEN:
+                encodeOrder(((OrderTaken) event).orderedItem, buffer);
+                break;
+            case BILL_PAID:
+                encodeOrder(((OrderPaid) event).itemPaid, buffer);
+                break;
+            default:
+                throw new IllegalArgumentException(format("Unexpected event type %s for event %s", event.type, event));
+        }
+    }
+
+    @Override
+    public BillEvent decode(AggregateId aggregateId, ByteBuffer buffer) {
+        BillEventType type = TYPES[getVarInt(buffer)];
+        switch (type) {
+            case BILL_OPENED:
+                return new BillOpened(aggregateId);
+            case ORDER_TAKEN:
+                return new OrderTaken(aggregateId, decodeOrder(buffer));
+            case BILL_PAID:
+                return new OrderPaid(aggregateId, decodeOrder(buffer));
+            case BILL_CLOSED:
+                return new BillClosed(aggregateId);
+            default:
+                throw new IllegalArgumentException(format("Unexpected event type %s", type));
+        }
+    }
+
+    @Override
+    public int keyframeInterval() {
+        return KEYFRAME_INTERVAL;
+    }
+
+    @Override
+    public StreamCodec<BillEvent> streamCodec() {
+        return new BillStreamCodec(emptyOrder(), emptyOrder());
+    }
+
+    static void encodeOrder(Order order, ByteBuffer buffer) {
+        putVarInt(buffer, order.size());
+        order.forEach((item, quantity) -> {
+            putString(buffer, item.name);
+            buffer.putDouble(item.price);
+            putVarInt(buffer, quantity);
+        });
+    }
+
+    static Order decodeOrder(ByteBuffer buffer) {
+        int size = getVarInt(buffer);
+        Map<Item, Integer> items = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            Item item = getItem(buffer);
+            items.put(item, getVarInt(buffer));
+        }
+        return new Order(items);
+    }
+
+    static void encodeDelta(Order order, Order previous, ByteBuffer buffer) {
+        int[] count = {0};
+        order.forEachDifference(previous, (item, delta) -> count[0]++);
+        putVarInt(buffer, count[0]);
+        order.forEachDifference(previous, (item, delta) -> {
+            putString(buffer, item.name);
+            buffer.putDouble(item.price);
+            putSignedVarInt(buffer, delta);
+        });
+    }
+
+    static Order decodeDelta(Order previous, ByteBuffer buffer) {
+        int size = getVarInt(buffer);
+        Map<Item, Integer> added = new HashMap<>();
+        Map<Item, Integer> removed = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Item item = getItem(buffer);
+            int delta = getSignedVarInt(buffer);
+            if (delta > 0) {
+                added.put(item, delta);
+            } else {
+                removed.put(item, -delta);
+            }
+        }
+        return previous.add(new Order(added)).remove(new Order(removed));
+    }
+
+    private static Item getItem(ByteBuffer buffer) {
+        return interner().intern(new ItemKey(getString(buffer, NAMES), buffer.getDouble()));
+    }
+
+    private static final class ItemKey implements Interner.Key<Item> {
+
+        private final String name;
+
+        private final double price;
+
+        private ItemKey(String name, double price) {
+            this.name = name;
+            this.price = price;
+        }
+
+        @Override
+        public int hash() {
+            return Item.hash(name, price);
+        }
+
+        @Override
+        public boolean matches(Item item) {
+            return Double.compare(item.price, price) == 0 && name.equals(item.name);
+        }
+
+        @Override
+        public Item create() {
+            return new Item(name, price);
+        }
+    }
+
+    private static final class BillStreamCodec implements StreamCodec<BillEvent> {
+
+        private Order ordered;
+
+        private Order paid;
+
+        private BillStreamCodec(Order ordered, Order paid) {
+            this.ordered = ordered;
+            this.paid = paid;
+        }
+
+        @Override
+        public void encode(BillEvent event, ByteBuffer buffer) {
+            putVarInt(buffer, event.type.ordinal());
+            switch (event.type) {
+                case BILL_OPENED:
+                case BILL_CLOSED:
+                    break;
+                case ORDER_TAKEN:
+                    Order orderedItem = ((OrderTaken) event).orderedItem;
+                    encodeDelta(orderedItem, ordered, buffer);
+                    ordered = orderedItem;
+                    break;
+                case BILL_PAID:
+                    Order itemPaid = ((OrderPaid) event).itemPaid;
+                    encodeDelta(itemPaid, paid, buffer);
+                    paid = itemPaid;
+                    break;
+                default:
+                    throw new IllegalArgumentException(format("Unexpected event type %s for event %s", event.type, event));
+            }
+        }
+
+        @Override
+        public BillEvent decode(AggregateId aggregateId, ByteBuffer buffer) {
+            BillEventType type = TYPES[getVarInt(buffer)];
+            switch (type) {
+                case BILL_OPENED:
+                    return new BillOpened(aggregateId);
+                case ORDER_TAKEN:
+                    ordered = decodeDelta(ordered, buffer);
+                    return new OrderTaken(aggregateId, ordered);
+                case BILL_PAID:
+                    paid = decodeDelta(paid, buffer);
+                    return new OrderPaid(aggregateId, paid);
+                case BILL_CLOSED:
+                    return new BillClosed(aggregateId);
+                default:
+                    throw new IllegalArgumentException(format("Unexpected event type %s", type));
+            }
+        }
+
+        @Override
+        public StreamCodec<BillEvent> copy() {
+            return new BillStreamCodec(ordered, paid);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.share.SnapshotCodec;
+
+import java.nio.ByteBuffer;
+
+import static com.zenika.poc.bill.BillEventCodec.decodeOrder;
+import static com.zenika.poc.bill.BillEventCodec.encodeOrder;
+
+public class BillStateCodec implements SnapshotCodec<BillState> {
+
+    @Override
+    public void encode(BillState state, ByteBuffer buffer) {
+        encodeOrder(state.itemsOrdered, buffer);
+        encodeOrder(state.itemsPaid, buffer);
+        buffer.put((byte) (state.closed ? 1 : 0));
+    }
+
+    @Override
+    public BillState decode(ByteBuffer buffer) {
+        return new BillState(decodeOrder(buffer), decodeOrder(buffer), buffer.get() != 0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.bill.exception.UnknownBillException;
+import com.zenika.poc.share.AggregateCache;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.EventRepository;
+import com.zenika.poc.share.EventSourcedRepository;
+import com.zenika.poc.share.Snapshot;
+import com.zenika.poc.share.SnapshotPolicy;
+import com.zenika.poc.share.SnapshotRepository;
+
+import java.util.stream.Stream;
+
+public class EventSourcedBillRepository extends EventSourcedRepository<Bill, BillEvent, BillState> implements BillRepository {
+
+    public static AggregateCache<BillState> billCache(long maximumOrderLines) {
+        return AggregateCache.maximumWeight(maximumOrderLines, state -> 1 + state.itemsOrdered.size() + state.itemsPaid.size());
+    }
+
+    public EventSourcedBillRepository(EventRepository<BillEvent> eventRepository,
+                                      SnapshotRepository<BillState> snapshotRepository,
+                                      SnapshotPolicy snapshotPolicy) {
+        super(eventRepository, snapshotRepository, snapshotPolicy);
+    }
+
+    public EventSourcedBillRepository(EventRepository<BillEvent> eventRepository,
+                                      SnapshotRepository<BillState> snapshotRepository,
+                                      SnapshotPolicy snapshotPolicy,
+                                      AggregateCache<BillState> cache) {
+        super(eventRepository, snapshotRepository, snapshotPolicy, cache);
+    }
+
+    @Override
+    public Bill findById(AggregateId id) {
+        Bill bill = load(id);
+        if (bill == null) {
+            throw new UnknownBillException();
+        }
+        return bill;
+    }
+
+    @Override
+    public void save(Bill bill) {
+        append(bill);
+    }
+
+    @Override
+    protected Bill replay(Stream<BillEvent> history) {
+        return Bill.loadBill(history);
+    }
+
+    @Override
+    protected Bill replay(Snapshot<BillState> snapshot, Stream<BillEvent> history) {
+        return Bill.loadBill(snapshot, history);
+    }
+
+    @Override
+    protected Snapshot<BillState> snapshot(Bill bill) {
+        return bill.snapshot();
+    }
+}
@@ -0,0 +1,57 @@
+package com.zenika.poc.item;
+
+import com.zenika.poc.item.exception.UnknownItemException;
+import com.zenika.poc.share.AggregateCache;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.EventRepository;
+import com.zenika.poc.share.EventSourcedRepository;
+import com.zenika.poc.share.Snapshot;
+import com.zenika.poc.share.SnapshotPolicy;
+import com.zenika.poc.share.SnapshotRepository;
+
+import java.util.stream.Stream;
+
+public class EventSourcedItemRepository extends EventSourcedRepository<Item, ItemEvent, ItemState> implements ItemRepository {
+
+    public EventSourcedItemRepository(EventRepository<ItemEvent> eventRepository,
+                                      SnapshotRepository<ItemState> snapshotRepository,
+                                      SnapshotPolicy snapshotPolicy) {
+        super(eventRepository, snapshotRepository, snapshotPolicy);
+    }
+
+    public EventSourcedItemRepository(EventRepository<ItemEvent> eventRepository,
+                                      SnapshotRepository<ItemState> snapshotRepository,
+                                      SnapshotPolicy snapshotPolicy,
+                                      AggregateCache<ItemState> cache) {
+        super(eventRepository, snapshotRepository, snapshotPolicy, cache);
+    }
+
+    @Override
+    public Item findById(AggregateId id) {
+        Item item = load(id);
+        if (item == null) {
+            throw new UnknownItemException();
+        }
+        return item;
+    }
+
+    @Override
+    public void save(Item item) {
+        append(item);
+    }
+
+    @Override
+    protected Item replay(Stream<ItemEvent> history) {
+        return Item.loadStock(history);
+    }
+
+    @Override
+    protected Item replay(Snapshot<ItemState> snapshot, Stream<ItemEvent> history) {
+        return Item.loadStock(snapshot, history);
+    }
+
+    @Override
+    protected Snapshot<ItemState> snapshot(Item item) {
+        return item.snapshot();
+    }
+}
@@ -0,0 +1,76 @@
+package com.zenika.poc.item;
+
+import com.zenika.poc.item.ItemEvent.ItemAdded;
+import com.zenika.poc.item.ItemEvent.ItemCreated;
+import com.zenika.poc.item.ItemEvent.ItemNameChanged;
+import com.zenika.poc.item.ItemEvent.ItemPriceChanged;
+import com.zenika.poc.item.ItemEvent.ItemReserved;
+import com.zenika.poc.item.ItemEvent.StockEventType;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.EventCodec;
+import com.zenika.poc.share.Interner;
+
+import java.nio.ByteBuffer;
+
+import static com.zenika.poc.share.ByteBuffers.getString;
+import static com.zenika.poc.share.ByteBuffers.getVarInt;
+import static com.zenika.poc.share.ByteBuffers.putString;
+import static com.zenika.poc.share.ByteBuffers.putVarInt;
+import static java.lang.String.format;
+
+public class ItemEventCodec implements EventCodec<ItemEvent> {
+
+    private static final StockEventType[] TYPES = StockEventType.values();
+
+    private static final Interner<String> NAMES = new Interner<>(4096);
+
+    public static Interner<String> names() {
+        return NAMES;
+    }
+
+    @Override
+    public void encode(ItemEvent event, ByteBuffer buffer) {
+        putVarInt(buffer, event.type.ordinal());
+        switch (event.type) {
+            case ITEM_CREATED:
+                ItemCreated itemCreated = (ItemCreated) event;
+                putString(buffer, itemCreated.name);
+                putVarInt(buffer, itemCreated.stock);
+                buffer.putDouble(itemCreated.price);
+                break;
+            case ITEM_ADDED:
+                putVarInt(buffer, ((ItemAdded) event).stock);
+                break;
+            case ITEM_REMOVED:
+                putVarInt(buffer, ((ItemReserved) event).newStock);
+                break;
+            case ITEM_PRICE_CHANGED:
+                buffer.putDouble(((ItemPriceChanged) event).newPrice);
+                break;
+            case ITEM_NAME_CHANGED:
+                putString(buffer, ((ItemNameChanged) event).newName);
+                break;
+            default:
+                throw new IllegalArgumentException(format("Unexpected event type %s for event %s", event.type, event));
+        }
+    }
+
+    @Override
+    public ItemEvent decode(AggregateId aggregateId, ByteBuffer buffer) {
+        StockEventType type = TYPES[getVarInt(buffer)];
+        switch (type) {
+            case ITEM_CREATED:
+                return new ItemCreated(aggregateId, getString(buffer, NAMES), getVarInt(buffer), buffer.getDouble());
+            case ITEM_ADDED:
+                return new ItemAdded(aggregateId, getVarInt(buffer));
+            case ITEM_REMOVED:
+                return new ItemReserved(aggregateId, getVarInt(buffer));
+            case ITEM_PRICE_CHANGED:
+                return new ItemPriceChanged(aggregateId, buffer.getDouble());
+            case ITEM_NAME_CHANGED:
+                return new ItemNameChanged(aggregateId, getString(buffer, NAMES));
+            default:
+                throw new IllegalArgumentException(format("Unexpected event type %s", type));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.zenika.poc.item;
+
+import com.zenika.poc.share.SnapshotCodec;
+
+import java.nio.ByteBuffer;
+
+import static com.zenika.poc.share.ByteBuffers.getString;
+import static com.zenika.poc.share.ByteBuffers.getVarInt;
+import static com.zenika.poc.share.ByteBuffers.putString;
+import static com.zenika.poc.share.ByteBuffers.putVarInt;
+
+public class ItemStateCodec implements SnapshotCodec<ItemState> {
+
+    @Override
+    public void encode(ItemState state, ByteBuffer buffer) {
+        putString(buffer, state.name);
+        putVarInt(buffer, state.stock);
+        buffer.putDouble(state.price);
+    }
+
+    @Override
+    public ItemState decode(ByteBuffer buffer) {
+        return new ItemState(getString(buffer), getVarInt(buffer), buffer.getDouble());
+    }
+}
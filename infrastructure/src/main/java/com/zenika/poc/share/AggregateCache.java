@@ -0,0 +1,65 @@
+package com.zenika.poc.share;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.util.function.ToIntFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class AggregateCache<STATE> {
+
+    public static <STATE> AggregateCache<STATE> noCache() {
+        return new AggregateCache<>(0, state -> 1);
+    }
+
+    public static <STATE> AggregateCache<STATE> maximumSize(long maximumSize) {
+        return new AggregateCache<>(maximumSize, state -> 1);
+    }
+
+    public static <STATE> AggregateCache<STATE> maximumWeight(long maximumWeight, ToIntFunction<STATE> weigher) {
+        return new AggregateCache<>(maximumWeight, weigher);
+    }
+
+    private final boolean enabled;
+
+    private final Cache<AggregateId, Snapshot<STATE>> cache;
+
+    private AggregateCache(long maximumWeight, ToIntFunction<STATE> weigher) {
+        checkArgument(maximumWeight >= 0, "Maximum weight must not be negative");
+        this.enabled = maximumWeight > 0;
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumWeight(maximumWeight)
+                                 .<AggregateId, Snapshot<STATE>>weigher((id, snapshot) -> weigher.applyAsInt(snapshot.state))
+                                 .recordStats()
+                                 .build();
+    }
+
+    Snapshot<STATE> get(AggregateId aggregateId) {
+        return enabled ? cache.getIfPresent(aggregateId) : null;
+    }
+
+    Snapshot<STATE> peek(AggregateId aggregateId) {
+        return enabled ? cache.asMap().get(aggregateId) : null;
+    }
+
+    void put(Snapshot<STATE> snapshot) {
+        if (enabled) {
+            cache.put(snapshot.aggregateId, snapshot);
+        }
+    }
+
+    void invalidate(AggregateId aggregateId) {
+        cache.invalidate(aggregateId);
+    }
+
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public AggregateCacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+        return new AggregateCacheStatistics(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.size());
+    }
+}
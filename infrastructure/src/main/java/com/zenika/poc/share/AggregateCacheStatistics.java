@@ -0,0 +1,37 @@
+package com.zenika.poc.share;
+
+import com.google.common.base.MoreObjects;
+
+public class AggregateCacheStatistics {
+
+    public final long hits;
+
+    public final long misses;
+
+    public final long evictions;
+
+    public final long size;
+
+    public AggregateCacheStatistics(long hits, long misses, long evictions, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("hits", hits)
+                          .add("misses", misses)
+                          .add("hitRate", hitRate())
+                          .add("evictions", evictions)
+                          .add("size", size)
+                          .toString();
+    }
+}
@@ -0,0 +1,367 @@
+package com.zenika.poc.share;
+
+import java.io.Closeable;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import java.util.function.LongFunction;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.zenika.poc.share.Exceptions.uncheck;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Single writer, concurrent readers: an entry and its slot are published by the volatile write of
+ * {@code entryCount}, and a reader finding a slot ahead of it waits for that write.
+ */
+final class AggregateIndex implements Closeable {
+
+    static final int NO_ENTRY = -1;
+
+    static final String ENTRIES_FILE = "entries.idx";
+
+    static final String AGGREGATES_FILE = "aggregates.idx";
+
+    private static final int ENTRIES_HEADER_SIZE = 16;
+
+    private static final int ENTRY_SIZE = 32;
+
+    static final int DEFAULT_CHUNK_ENTRIES = 64 * 1024;
+
+    private static final int TABLE_HEADER_SIZE = 16;
+
+    private static final int SLOT_SIZE = 24;
+
+    private static final int INITIAL_SLOTS = 1024;
+
+    static AggregateIndex open(Path directory, LongFunction<AggregateId> aggregateIds) {
+        return open(directory, aggregateIds, DEFAULT_CHUNK_ENTRIES);
+    }
+
+    static AggregateIndex open(Path directory, LongFunction<AggregateId> aggregateIds, int chunkEntries) {
+        checkArgument(chunkEntries > 0 && Integer.bitCount(chunkEntries) == 1 && chunkEntries <= Integer.MAX_VALUE / ENTRY_SIZE,
+                      "Chunk entries must be a power of two below %s", Integer.MAX_VALUE / ENTRY_SIZE);
+        return new AggregateIndex(directory, aggregateIds, chunkEntries);
+    }
+
+    private final Path directory;
+
+    private final LongFunction<AggregateId> aggregateIds;
+
+    private final FileChannel entriesChannel;
+
+    private final MappedByteBuffer header;
+
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private volatile MappedByteBuffer[] chunks;
+
+    private volatile int entryCount;
+
+    private int forcedEntries;
+
+    private long head;
+
+    private FileChannel tableChannel;
+
+    private volatile MappedByteBuffer table;
+
+    private int slots;
+
+    private int aggregates;
+
+    private AggregateIndex(Path directory, LongFunction<AggregateId> aggregateIds, int chunkEntries) {
+        this.directory = directory;
+        this.aggregateIds = aggregateIds;
+        this.entriesChannel = uncheck(() -> FileChannel.open(directory.resolve(ENTRIES_FILE), CREATE, READ, WRITE));
+        this.header = map(entriesChannel, 0, ENTRIES_HEADER_SIZE);
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkEntries);
+        this.chunkMask = chunkEntries - 1;
+        this.chunks = new MappedByteBuffer[0];
+        this.entryCount = header.getInt(0);
+        this.forcedEntries = entryCount;
+        for (int chunk = 0; chunk <= entryCount >>> chunkShift; chunk++) {
+            addChunk();
+        }
+        this.head = entryCount == 0 ? 0 : position(entryCount - 1) + count(entryCount - 1);
+
+        this.tableChannel = uncheck(() -> FileChannel.open(directory.resolve(AGGREGATES_FILE), CREATE, READ, WRITE));
+        if (sizeOf(tableChannel) == 0) {
+            this.table = map(tableChannel, 0, TABLE_HEADER_SIZE + (long) INITIAL_SLOTS * SLOT_SIZE);
+            this.table.putInt(0, INITIAL_SLOTS);
+        } else {
+            this.table = map(tableChannel, 0, sizeOf(tableChannel));
+        }
+        this.slots = table.getInt(0);
+        this.aggregates = table.getInt(4);
+    }
+
+    int entryCount() {
+        return entryCount;
+    }
+
+    long head() {
+        int entryCount = this.entryCount;
+        return entryCount == 0 ? 0 : position(entryCount - 1) + count(entryCount - 1);
+    }
+
+    long location(int entry) {
+        return chunkOf(entry).getLong(offsetOf(entry));
+    }
+
+    long position(int entry) {
+        return chunkOf(entry).getLong(offsetOf(entry) + 8);
+    }
+
+    int version(int entry) {
+        return chunkOf(entry).getInt(offsetOf(entry) + 16);
+    }
+
+    int count(int entry) {
+        return chunkOf(entry).getInt(offsetOf(entry) + 20);
+    }
+
+    int ordinal(int entry) {
+        return chunkOf(entry).getInt(offsetOf(entry) + 24);
+    }
+
+    int previous(int entry) {
+        return chunkOf(entry).getInt(offsetOf(entry) + 28);
+    }
+
+    int lastEntry(AggregateId aggregateId) {
+        while (true) {
+            MappedByteBuffer table = this.table;
+            int slot = find(table, table.getInt(0), aggregateId);
+            if (slot < 0) {
+                return NO_ENTRY;
+            }
+
+            int lastEntry = publishedEntry(table, slot);
+            if (lastEntry != NO_ENTRY) {
+                return lastEntry;
+            }
+        }
+    }
+
+    int entryAt(long position) {
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (position(middle) <= position) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return Math.max(0, high);
+    }
+
+    void forEachAggregate(IntConsumer lastEntries) {
+        MappedByteBuffer table = this.table;
+        int slots = table.getInt(0);
+        for (int slot = 0; slot < slots; slot++) {
+            if (table.getInt(slotOffset(slot) + 16) != 0) {
+                int lastEntry = publishedEntry(table, slot);
+                if (lastEntry != NO_ENTRY) {
+                    lastEntries.accept(lastEntry);
+                }
+            }
+        }
+    }
+
+    void add(AggregateId aggregateId, long location, int count) {
+        int slot = slotOf(aggregateId);
+        int previous = table.getInt(slotOffset(slot) + 16) - 1;
+        int entry = entryCount;
+        if (entry >>> chunkShift == chunks.length) {
+            addChunk();
+        }
+
+        MappedByteBuffer chunk = chunkOf(entry);
+        int offset = offsetOf(entry);
+        chunk.putLong(offset, location);
+        chunk.putLong(offset + 8, head);
+        chunk.putInt(offset + 16, previous == NO_ENTRY ? 0 : version(previous) + count(previous));
+        chunk.putInt(offset + 20, count);
+        chunk.putInt(offset + 24, previous == NO_ENTRY ? 0 : ordinal(previous) + 1);
+        chunk.putInt(offset + 28, previous);
+        header.putInt(0, entry + 1);
+        table.putInt(slotOffset(slot) + 16, entry + 1);
+        head += count;
+        entryCount = entry + 1;
+    }
+
+    void recoverTable() {
+        if (isTableConsistent()) {
+            return;
+        }
+
+        rebuildTable(INITIAL_SLOTS, false);
+        BitSet superseded = new BitSet(entryCount);
+        for (int entry = entryCount - 1; entry >= 0; entry--) {
+            if (!superseded.get(entry)) {
+                int slot = slotOf(aggregateIds.apply(location(entry)));
+                table.putInt(slotOffset(slot) + 16, entry + 1);
+            }
+            int previous = previous(entry);
+            if (previous != NO_ENTRY) {
+                superseded.set(previous);
+            }
+        }
+        force();
+    }
+
+    void clear() {
+        rebuildTable(INITIAL_SLOTS, false);
+        header.putInt(0, 0);
+        head = 0;
+        entryCount = 0;
+        forcedEntries = 0;
+    }
+
+    void force() {
+        int entryCount = this.entryCount;
+        for (int chunk = forcedEntries >>> chunkShift; chunk < chunks.length && chunk <= (entryCount - 1) >>> chunkShift; chunk++) {
+            chunks[chunk].force();
+        }
+        header.force();
+        forcedEntries = entryCount;
+        table.force();
+        table.putInt(8, entryCount);
+    }
+
+    @Override
+    public void close() {
+        force();
+        table.force();
+        uncheck(entriesChannel::close);
+        uncheck(tableChannel::close);
+    }
+
+    private int publishedEntry(MappedByteBuffer table, int slot) {
+        int lastEntry = table.getInt(slotOffset(slot) + 16) - 1;
+        while (lastEntry >= entryCount) {
+            if (table != this.table) {
+                return NO_ENTRY;
+            }
+            Thread.yield();
+        }
+        return lastEntry;
+    }
+
+    private boolean isTableConsistent() {
+        if (table.getInt(8) != entryCount) {
+            return false;
+        }
+
+        for (int slot = 0; slot < slots; slot++) {
+            if (table.getInt(slotOffset(slot) + 16) > entryCount) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int slotOf(AggregateId aggregateId) {
+        if (2 * (aggregates + 1) > slots) {
+            rebuildTable(2 * slots, true);
+        }
+
+        int slot = find(table, slots, aggregateId);
+        if (slot < 0) {
+            slot = -slot - 1;
+            table.putLong(slotOffset(slot), aggregateId.mostSignificantBits);
+            table.putLong(slotOffset(slot) + 8, aggregateId.leastSignificantBits);
+            table.putInt(4, ++aggregates);
+        }
+        return slot;
+    }
+
+    private static int find(MappedByteBuffer table, int slots, AggregateId aggregateId) {
+        int mask = slots - 1;
+        for (int slot = aggregateId.hashCode() & mask; ; slot = (slot + 1) & mask) {
+            int offset = slotOffset(slot);
+            if (table.getInt(offset + 16) == 0) {
+                return -slot - 1;
+            }
+            if (table.getLong(offset) == aggregateId.mostSignificantBits && table.getLong(offset + 8) == aggregateId.leastSignificantBits) {
+                return slot;
+            }
+        }
+    }
+
+    private void rebuildTable(int newSlots, boolean keepAggregates) {
+        Path resized = directory.resolve(AGGREGATES_FILE + ".tmp");
+        FileChannel channel = uncheck(() -> FileChannel.open(resized, CREATE, READ, WRITE, TRUNCATE_EXISTING));
+        MappedByteBuffer target = map(channel, 0, TABLE_HEADER_SIZE + (long) newSlots * SLOT_SIZE);
+        target.putInt(0, newSlots);
+        int count = 0;
+        MappedByteBuffer source = table;
+        for (int slot = 0; keepAggregates && slot < source.getInt(0); slot++) {
+            int offset = slotOffset(slot);
+            int lastEntry = source.getInt(offset + 16);
+            if (lastEntry == 0) {
+                continue;
+            }
+
+            AggregateId aggregateId = AggregateId.aggregateId(source.getLong(offset), source.getLong(offset + 8));
+            int free = -find(target, newSlots, aggregateId) - 1;
+            target.putLong(slotOffset(free), aggregateId.mostSignificantBits);
+            target.putLong(slotOffset(free) + 8, aggregateId.leastSignificantBits);
+            target.putInt(slotOffset(free) + 16, lastEntry);
+            count++;
+        }
+        target.putInt(4, count);
+        target.putInt(8, keepAggregates ? source.getInt(8) : 0);
+        target.force();
+        uncheck(() -> Files.move(resized, directory.resolve(AGGREGATES_FILE), ATOMIC_MOVE, REPLACE_EXISTING));
+
+        uncheck(tableChannel::close);
+        tableChannel = channel;
+        table = target;
+        slots = newSlots;
+        aggregates = count;
+    }
+
+    private void addChunk() {
+        int chunkEntries = chunkMask + 1;
+        long position = ENTRIES_HEADER_SIZE + ((long) chunks.length << chunkShift) * ENTRY_SIZE;
+        MappedByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+        grown[chunks.length] = map(entriesChannel, position, (long) chunkEntries * ENTRY_SIZE);
+        chunks = grown;
+    }
+
+    private MappedByteBuffer chunkOf(int entry) {
+        return chunks[entry >>> chunkShift];
+    }
+
+    private int offsetOf(int entry) {
+        return (entry & chunkMask) * ENTRY_SIZE;
+    }
+
+    private static int slotOffset(int slot) {
+        return TABLE_HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static long sizeOf(FileChannel channel) {
+        return uncheck(channel::size);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) {
+        return uncheck(() -> channel.map(READ_WRITE, position, size));
+    }
+}
@@ -0,0 +1,147 @@
+package com.zenika.poc.share;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class ByteBuffers {
+
+    public static final int AGGREGATE_ID_SIZE = 16;
+
+    public static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    public static void putSignedVarInt(ByteBuffer buffer, int value) {
+        putVarInt(buffer, (value << 1) ^ (value >> 31));
+    }
+
+    public static int getSignedVarInt(ByteBuffer buffer) {
+        int value = getVarInt(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public static void putString(ByteBuffer buffer, String value) {
+        int length = value.length();
+        if (isAscii(value)) {
+            putVarInt(buffer, length);
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(UTF_8);
+            putVarInt(buffer, bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    public static String getString(ByteBuffer buffer) {
+        return getString(buffer, getVarInt(buffer));
+    }
+
+    public static String getString(ByteBuffer buffer, Interner<String> strings) {
+        int length = getVarInt(buffer);
+        int offset = buffer.position();
+        int hash = 0;
+        int bits = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(offset + i);
+            hash = 31 * hash + b;
+            bits |= b;
+        }
+
+        String value = bits >= 0 ? strings.intern(new AsciiKey(buffer, offset, length, hash)) : strings.intern(getString(buffer, length));
+        buffer.position(offset + length);
+        return value;
+    }
+
+    private static String getString(ByteBuffer buffer, int length) {
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, UTF_8);
+        }
+        return value;
+    }
+
+    public static void putAggregateId(ByteBuffer buffer, AggregateId aggregateId) {
+        buffer.putLong(aggregateId.mostSignificantBits);
+        buffer.putLong(aggregateId.leastSignificantBits);
+    }
+
+    public static AggregateId getAggregateId(ByteBuffer buffer) {
+        return AggregateId.aggregateId(buffer.getLong(), buffer.getLong());
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class AsciiKey implements Interner.Key<String> {
+
+        private final ByteBuffer buffer;
+
+        private final int offset;
+
+        private final int length;
+
+        private final int hash;
+
+        private AsciiKey(ByteBuffer buffer, int offset, int length, int hash) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hash() {
+            return hash;
+        }
+
+        @Override
+        public boolean matches(String value) {
+            if (value.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) != buffer.get(offset + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String create() {
+            buffer.position(offset);
+            return getString(buffer, length);
+        }
+    }
+
+}
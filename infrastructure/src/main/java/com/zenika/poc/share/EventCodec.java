@@ -0,0 +1,22 @@
+package com.zenika.poc.share;
+
+import java.nio.ByteBuffer;
+
+public interface EventCodec<EVENT extends Event> {
+
+    void encode(EVENT event, ByteBuffer buffer);
+
+    EVENT decode(AggregateId aggregateId, ByteBuffer buffer);
+
+    /**
+     * Number of records between two records encoded by a fresh {@link #streamCodec()}.
+     */
+    default int keyframeInterval() {
+        return 1;
+    }
+
+    default StreamCodec<EVENT> streamCodec() {
+        return StreamCodec.stateless(this);
+    }
+
+}
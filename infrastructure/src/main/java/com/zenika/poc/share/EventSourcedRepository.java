@@ -0,0 +1,172 @@
+package com.zenika.poc.share;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.zenika.poc.share.AggregateCache.noCache;
+import static com.zenika.poc.share.EventRepository.NO_STREAM;
+import static com.zenika.poc.share.Metrics.AGGREGATE_WARMED_UP;
+import static com.zenika.poc.share.Metrics.AGGREGATE_WARM_UP;
+import static com.zenika.poc.share.MetricsProvider.metrics;
+
+public abstract class EventSourcedRepository<AGGREGATE extends Aggregate<AGGREGATE, EVENT>, EVENT extends Event, STATE> {
+
+    private static final int WARM_UP_BATCH_SIZE = 16;
+
+    protected final EventRepository<EVENT> eventRepository;
+
+    protected final SnapshotRepository<STATE> snapshotRepository;
+
+    private final SnapshotPolicy snapshotPolicy;
+
+    private final AggregateCache<STATE> cache;
+
+    protected EventSourcedRepository(EventRepository<EVENT> eventRepository,
+                                     SnapshotRepository<STATE> snapshotRepository,
+                                     SnapshotPolicy snapshotPolicy) {
+        this(eventRepository, snapshotRepository, snapshotPolicy, noCache());
+    }
+
+    protected EventSourcedRepository(EventRepository<EVENT> eventRepository,
+                                     SnapshotRepository<STATE> snapshotRepository,
+                                     SnapshotPolicy snapshotPolicy,
+                                     AggregateCache<STATE> cache) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.snapshotPolicy = snapshotPolicy;
+        this.cache = cache;
+    }
+
+    public AggregateCacheStatistics cacheStatistics() {
+        return cache.statistics();
+    }
+
+    public WarmUpStatistics warmUp(ForkJoinPool pool) {
+        return warmUp(eventRepository.aggregateIds(), pool, aggregate -> {
+        });
+    }
+
+    public WarmUpStatistics warmUp(Collection<AggregateId> aggregateIds, ForkJoinPool pool) {
+        return warmUp(aggregateIds, pool, aggregate -> {
+        });
+    }
+
+    public WarmUpStatistics warmUp(Collection<AggregateId> aggregateIds, ForkJoinPool pool, Consumer<? super AGGREGATE> onLoaded) {
+        long start = System.nanoTime();
+        LongAdder loaded = new LongAdder();
+        AggregateId[] ids = aggregateIds.toArray(new AggregateId[0]);
+        pool.invoke(new WarmUpTask(ids, 0, ids.length, aggregate -> {
+            cache.put(snapshot(aggregate));
+            onLoaded.accept(aggregate);
+            loaded.increment();
+        }));
+
+        WarmUpStatistics statistics = new WarmUpStatistics(loaded.sum(), System.nanoTime() - start);
+        Metrics metrics = metrics();
+        metrics.histogram(AGGREGATE_WARM_UP).record(statistics.elapsedNanos);
+        metrics.counter(AGGREGATE_WARMED_UP).add(statistics.aggregates);
+        return statistics;
+    }
+
+    protected AGGREGATE load(AggregateId aggregateId) {
+        Snapshot<STATE> cached = cache.get(aggregateId);
+        if (cached != null && cached.version == eventRepository.version(aggregateId)) {
+            return replay(cached, Stream.empty());
+        }
+
+        AGGREGATE aggregate = loadFromStore(aggregateId);
+        if (aggregate != null) {
+            cache.put(snapshot(aggregate));
+        }
+        return aggregate;
+    }
+
+    protected void append(AGGREGATE aggregate) {
+        Events<EVENT> events = aggregate.events();
+        AggregateId aggregateId = events.aggregateId();
+        if (aggregateId == null) {
+            return;
+        }
+
+        int expectedVersion = aggregate.version() - events.size();
+        eventRepository.addEvents(events, expectedVersion);
+
+        int newVersion = expectedVersion + events.size();
+        Snapshot<STATE> updated = updateCache(aggregateId, events, newVersion);
+        if (snapshotPolicy.shouldSnapshot(expectedVersion, newVersion)) {
+            snapshotRepository.saveSnapshot(updated != null ? updated : snapshot(loadFromStore(aggregateId)));
+        }
+        aggregate.markCommitted();
+    }
+
+    private Snapshot<STATE> updateCache(AggregateId aggregateId, Events<EVENT> events, int newVersion) {
+        Snapshot<STATE> cached = cache.peek(aggregateId);
+        Snapshot<STATE> updated = null;
+        if (cached != null && cached.version + events.size() == newVersion) {
+            updated = snapshot(replay(cached, events.stream()));
+        } else if (cached == null && events.size() == newVersion) {
+            updated = snapshot(replay(events.stream()));
+        }
+
+        if (updated == null) {
+            cache.invalidate(aggregateId);
+        } else {
+            cache.put(updated);
+        }
+        return updated;
+    }
+
+    private AGGREGATE loadFromStore(AggregateId aggregateId) {
+        Snapshot<STATE> snapshot = snapshotRepository.latestSnapshot(aggregateId);
+        if (snapshot == null) {
+            return eventRepository.version(aggregateId) == NO_STREAM ? null : replay(eventRepository.eventStream(aggregateId));
+        }
+
+        return replay(snapshot, eventRepository.eventStream(aggregateId, snapshot.version, Integer.MAX_VALUE));
+    }
+
+    protected abstract AGGREGATE replay(Stream<EVENT> history);
+
+    protected abstract AGGREGATE replay(Snapshot<STATE> snapshot, Stream<EVENT> history);
+
+    protected abstract Snapshot<STATE> snapshot(AGGREGATE aggregate);
+
+    private final class WarmUpTask extends RecursiveAction {
+
+        private final AggregateId[] aggregateIds;
+
+        private final int from;
+
+        private final int to;
+
+        private final Consumer<AGGREGATE> onLoaded;
+
+        private WarmUpTask(AggregateId[] aggregateIds, int from, int to, Consumer<AGGREGATE> onLoaded) {
+            this.aggregateIds = aggregateIds;
+            this.from = from;
+            this.to = to;
+            this.onLoaded = onLoaded;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > WARM_UP_BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new WarmUpTask(aggregateIds, from, middle, onLoaded),
+                          new WarmUpTask(aggregateIds, middle, to, onLoaded));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                AGGREGATE aggregate = loadFromStore(aggregateIds[i]);
+                if (aggregate != null) {
+                    onLoaded.accept(aggregate);
+                }
+            }
+        }
+    }
+}
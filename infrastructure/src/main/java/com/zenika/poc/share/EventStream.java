@@ -0,0 +1,137 @@
+package com.zenika.poc.share;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Spliterator.IMMUTABLE;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+
+final class EventStream<EVENT extends Event> {
+
+    @SuppressWarnings("unchecked")
+    static <EVENT extends Event> EventStream<EVENT> emptyStream() {
+        return (EventStream<EVENT>) EMPTY;
+    }
+
+    private static final EventStream<?> EMPTY = new EventStream<>(null, new Event[0]);
+
+    private final EventStream<EVENT> previous;
+
+    private final Event[] batch;
+
+    final int version;
+
+    private volatile boolean logged;
+
+    private EventStream(EventStream<EVENT> previous, Event[] batch) {
+        this.previous = previous;
+        this.batch = batch;
+        this.version = previous == null ? batch.length : previous.version + batch.length;
+    }
+
+    static Event[] toBatch(Events<?> events) {
+        return events.stream().toArray(Event[]::new);
+    }
+
+    EventStream<EVENT> append(Event[] batch) {
+        return new EventStream<>(this, batch);
+    }
+
+    EventStream<EVENT> previous() {
+        return previous;
+    }
+
+    Event[] batch() {
+        return batch;
+    }
+
+    boolean isLogged() {
+        return previous == null || logged;
+    }
+
+    void markLogged() {
+        logged = true;
+    }
+
+    Events<EVENT> toEvents() {
+        return toEvents(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    Events<EVENT> toEvents(int fromVersion) {
+        List<EventStream<EVENT>> batches = batchesFrom(fromVersion);
+        List<EVENT> events = new ArrayList<>(Math.max(0, version - fromVersion));
+        for (int i = batches.size() - 1; i >= 0; i--) {
+            EventStream<EVENT> stream = batches.get(i);
+            for (int j = Math.max(0, fromVersion - stream.previous.version); j < stream.batch.length; j++) {
+                events.add((EVENT) stream.batch[j]);
+            }
+        }
+
+        return new Events<>(events);
+    }
+
+    Stream<EVENT> stream(int fromVersion, int toVersion) {
+        checkArgument(0 <= fromVersion && fromVersion <= toVersion, "Invalid version range [%s, %s)", fromVersion, toVersion);
+        toVersion = Math.min(toVersion, version);
+        int size = Math.max(0, toVersion - fromVersion);
+        Iterator<EVENT> iterator = new BatchIterator<>(batchesFrom(fromVersion), fromVersion, size);
+        return StreamSupport.stream(Spliterators.spliterator(iterator, size, ORDERED | NONNULL | IMMUTABLE), false);
+    }
+
+    private List<EventStream<EVENT>> batchesFrom(int fromVersion) {
+        List<EventStream<EVENT>> batches = new ArrayList<>();
+        EventStream<EVENT> current = this;
+        while (current.previous != null && current.version > fromVersion) {
+            batches.add(current);
+            current = current.previous;
+        }
+        return batches;
+    }
+
+    private static final class BatchIterator<EVENT extends Event> implements Iterator<EVENT> {
+
+        private final List<EventStream<EVENT>> batches;
+
+        private int batch;
+
+        private int index;
+
+        private int remaining;
+
+        private BatchIterator(List<EventStream<EVENT>> batches, int fromVersion, int size) {
+            this.batches = batches;
+            this.batch = batches.size() - 1;
+            this.index = batch < 0 ? 0 : Math.max(0, fromVersion - batches.get(batch).previous.version);
+            this.remaining = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public EVENT next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+
+            Event[] events = batches.get(batch).batch;
+            if (index == events.length) {
+                events = batches.get(--batch).batch;
+                index = 0;
+            }
+            remaining--;
+            return (EVENT) events[index++];
+        }
+    }
+}
@@ -0,0 +1,528 @@
+package com.zenika.poc.share;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.zenika.poc.share.exception.WrongExpectedVersionException;
+
+import java.io.Closeable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.zenika.poc.share.AggregateIndex.NO_ENTRY;
+import static com.zenika.poc.share.ByteBuffers.AGGREGATE_ID_SIZE;
+import static com.zenika.poc.share.ByteBuffers.getAggregateId;
+import static com.zenika.poc.share.ByteBuffers.putAggregateId;
+import static com.zenika.poc.share.Exceptions.uncheck;
+import static com.zenika.poc.share.Metrics.REPOSITORY_READ_ALL;
+import static com.zenika.poc.share.MetricsProvider.metrics;
+import static com.zenika.poc.share.RepositoryMetrics.recordAppend;
+import static com.zenika.poc.share.RepositoryMetrics.recordRead;
+import static java.lang.String.format;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.stream.Collectors.toList;
+
+public class FileEventRepository<EVENT extends Event> implements EventRepository<EVENT>, Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int READ_CHUNK_RECORDS = 64;
+
+    private static final int MAXIMUM_CACHED_ENCODERS = 1024;
+
+    private final Path directory;
+
+    private final EventCodec<EVENT> codec;
+
+    private final int segmentSize;
+
+    private final ConcurrentMap<Integer, Segment> segments;
+
+    private final Cache<AggregateId, StreamCodec<EVENT>> encoders;
+
+    private final Object lock;
+
+    private final List<Segment> rolledSegments;
+
+    private final AggregateIndex index;
+
+    private Segment currentSegment;
+
+    private ByteBuffer scratch;
+
+    public FileEventRepository(Path directory, EventCodec<EVENT> codec) {
+        this(directory, codec, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public FileEventRepository(Path directory, EventCodec<EVENT> codec, int segmentSize) {
+        this(directory, codec, segmentSize, AggregateIndex.DEFAULT_CHUNK_ENTRIES);
+    }
+
+    FileEventRepository(Path directory, EventCodec<EVENT> codec, int segmentSize, int indexChunkEntries) {
+        checkArgument(segmentSize > Segment.HEADER_SIZE, "Segment size is too small");
+        this.directory = directory;
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.segments = new ConcurrentHashMap<>();
+        this.encoders = CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_ENCODERS).build();
+        this.lock = new Object();
+        this.rolledSegments = new ArrayList<>();
+        this.scratch = ByteBuffer.allocate(4096);
+        uncheck(() -> Files.createDirectories(directory));
+        List<Integer> ids = openSegments();
+        this.index = AggregateIndex.open(directory, this::aggregateIdAt, indexChunkEntries);
+        recover(ids);
+    }
+
+    @Override
+    public Events<EVENT> events(AggregateId aggregateId) {
+        return events(aggregateId, 0);
+    }
+
+    @Override
+    public Events<EVENT> events(AggregateId aggregateId, int fromVersion) {
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        int last = index.lastEntry(aggregateId);
+        if (last == NO_ENTRY) {
+            recordRead(metrics, start, null);
+            return null;
+        }
+
+        StreamCodec<EVENT> decoder = null;
+        List<EVENT> events = new ArrayList<>();
+        for (int entry : entriesFrom(last, keyframeOf(ordinalAt(last, fromVersion)))) {
+            int ordinal = index.ordinal(entry);
+            if (keyframeOf(ordinal) == ordinal) {
+                decoder = codec.streamCodec();
+            }
+            readRecord(aggregateId, index.location(entry), fromVersion - index.version(entry), decoder, events);
+        }
+        Events<EVENT> result = new Events<>(events);
+        recordRead(metrics, start, result);
+        return result;
+    }
+
+    @Override
+    public Stream<EVENT> eventStream(AggregateId aggregateId, int fromVersion, int toVersion) {
+        checkArgument(0 <= fromVersion && fromVersion <= toVersion, "Invalid version range [%s, %s)", fromVersion, toVersion);
+        int last = index.lastEntry(aggregateId);
+        if (last == NO_ENTRY || fromVersion == toVersion) {
+            return Stream.empty();
+        }
+
+        int[] entries = entriesFrom(last, keyframeOf(ordinalAt(last, fromVersion)));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new StreamReader(aggregateId, entries, fromVersion, toVersion),
+                                                                        ORDERED | NONNULL), false);
+    }
+
+    @Override
+    public int version(AggregateId aggregateId) {
+        int last = index.lastEntry(aggregateId);
+        return last == NO_ENTRY ? NO_STREAM : index.version(last) + index.count(last);
+    }
+
+    @Override
+    public Set<AggregateId> aggregateIds() {
+        Set<AggregateId> aggregateIds = new HashSet<>();
+        index.forEachAggregate(entry -> aggregateIds.add(aggregateIdAt(index.location(entry))));
+        return aggregateIds;
+    }
+
+    @Override
+    public long headPosition() {
+        return index.head();
+    }
+
+    @Override
+    public List<EVENT> readAll(long fromPosition, int maxCount) {
+        checkArgument(fromPosition >= 0, "Position must not be negative");
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        int entryCount = index.entryCount();
+        Map<AggregateId, StreamCodec<EVENT>> decoders = new HashMap<>();
+        List<EVENT> events = new ArrayList<>();
+        for (int entry = index.entryAt(fromPosition); entry < entryCount && events.size() < maxCount; entry++) {
+            long location = index.location(entry);
+            AggregateId aggregateId = aggregateIdAt(location);
+            int skip = (int) Math.max(0, fromPosition - index.position(entry));
+            readRecord(aggregateId, location, skip, decoderAt(aggregateId, decoders, entry), events);
+        }
+        List<EVENT> result = events.size() > maxCount ? new ArrayList<>(events.subList(0, maxCount)) : events;
+        metrics.stopTimer(REPOSITORY_READ_ALL, start);
+        return result;
+    }
+
+    @Override
+    public void addEvents(Events<EVENT> events) {
+        addEvents(events, ANY_VERSION);
+    }
+
+    @Override
+    public void addEvents(Events<EVENT> events, int expectedVersion) {
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        synchronized (lock) {
+            append(events, expectedVersion);
+            flush();
+        }
+        recordAppend(metrics, start, events);
+    }
+
+    @Override
+    public void clearAllEvents() {
+        synchronized (lock) {
+            segments.values().forEach(Segment::delete);
+            segments.clear();
+            rolledSegments.clear();
+            encoders.invalidateAll();
+            index.clear();
+            currentSegment = openSegment(0);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            flush();
+            segments.values().forEach(Segment::close);
+            index.close();
+        }
+    }
+
+    void append(Events<EVENT> events, int expectedVersion) {
+        synchronized (lock) {
+            doAppend(events, expectedVersion);
+        }
+    }
+
+    void flush() {
+        synchronized (lock) {
+            rolledSegments.forEach(this::force);
+            rolledSegments.clear();
+            force(currentSegment);
+            index.force();
+        }
+    }
+
+    void force(Segment segment) {
+        segment.force();
+    }
+
+    private void doAppend(Events<EVENT> events, int expectedVersion) {
+        AggregateId aggregateId = events.aggregateId();
+        if (aggregateId == null) {
+            return;
+        }
+
+        int last = index.lastEntry(aggregateId);
+        int currentVersion = last == NO_ENTRY ? NO_STREAM : index.version(last) + index.count(last);
+        if (expectedVersion != ANY_VERSION && currentVersion != expectedVersion) {
+            throw new WrongExpectedVersionException(aggregateId, expectedVersion, currentVersion);
+        }
+
+        int count = events.size();
+        StreamCodec<EVENT> previous = encoderOf(aggregateId, last);
+        StreamCodec<EVENT> encoder;
+        ByteBuffer payload;
+        while (true) {
+            encoder = previous.copy();
+            try {
+                payload = encodeRecord(aggregateId, events, count, encoder);
+                break;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+
+        if (!currentSegment.fits(payload.remaining())) {
+            checkArgument(payload.remaining() + Segment.HEADER_SIZE <= segmentSize,
+                          "Events of %s do not fit in a segment of %s bytes", aggregateId, segmentSize);
+            rolledSegments.add(currentSegment);
+            currentSegment = openSegment(currentSegment.id + 1);
+        }
+        int offset = currentSegment.append(payload);
+
+        index.add(aggregateId, location(currentSegment.id, offset), count);
+        encoders.put(aggregateId, encoder);
+    }
+
+    private StreamCodec<EVENT> encoderOf(AggregateId aggregateId, int last) {
+        int recordCount = last == NO_ENTRY ? 0 : index.ordinal(last) + 1;
+        if (keyframeOf(recordCount) == recordCount) {
+            return codec.streamCodec();
+        }
+
+        StreamCodec<EVENT> encoder = encoders.getIfPresent(aggregateId);
+        if (encoder == null) {
+            encoder = codec.streamCodec();
+            for (int entry : entriesFrom(last, keyframeOf(recordCount))) {
+                skipRecord(aggregateId, index.location(entry), encoder);
+            }
+        }
+        return encoder;
+    }
+
+    private StreamCodec<EVENT> decoderAt(AggregateId aggregateId, Map<AggregateId, StreamCodec<EVENT>> decoders, int entry) {
+        int ordinal = index.ordinal(entry);
+        if (keyframeOf(ordinal) == ordinal) {
+            StreamCodec<EVENT> decoder = codec.streamCodec();
+            decoders.put(aggregateId, decoder);
+            return decoder;
+        }
+
+        StreamCodec<EVENT> decoder = decoders.get(aggregateId);
+        if (decoder == null) {
+            decoder = codec.streamCodec();
+            int[] entries = entriesFrom(entry, keyframeOf(ordinal));
+            for (int i = 0; i < entries.length - 1; i++) {
+                skipRecord(aggregateId, index.location(entries[i]), decoder);
+            }
+            decoders.put(aggregateId, decoder);
+        }
+        return decoder;
+    }
+
+    private int ordinalAt(int last, int version) {
+        int entry = last;
+        while (index.version(entry) > version && index.previous(entry) != NO_ENTRY) {
+            entry = index.previous(entry);
+        }
+        return index.ordinal(entry);
+    }
+
+    private int[] entriesFrom(int last, int fromOrdinal) {
+        int lastOrdinal = index.ordinal(last);
+        int[] entries = new int[lastOrdinal - fromOrdinal + 1];
+        int entry = last;
+        for (int i = entries.length - 1; i >= 0; i--) {
+            entries[i] = entry;
+            entry = index.previous(entry);
+        }
+        return entries;
+    }
+
+    private ByteBuffer payload(long location) {
+        return segments.get(segmentId(location)).payload(offset(location));
+    }
+
+    private AggregateId aggregateIdAt(long location) {
+        return getAggregateId(payload(location));
+    }
+
+    private int keyframeOf(int record) {
+        return record - record % codec.keyframeInterval();
+    }
+
+    private ByteBuffer encodeRecord(AggregateId aggregateId, Events<EVENT> events, int count, StreamCodec<EVENT> encoder) {
+        scratch.clear();
+        putAggregateId(scratch, aggregateId);
+        scratch.putInt(count);
+
+        for (EVENT event : events) {
+            int lengthPosition = scratch.position();
+            scratch.putInt(0);
+            encoder.encode(event, scratch);
+            scratch.putInt(lengthPosition, scratch.position() - lengthPosition - 4);
+        }
+
+        scratch.flip();
+        return scratch;
+    }
+
+    private void skipRecord(AggregateId aggregateId, long location, StreamCodec<EVENT> decoder) {
+        ByteBuffer payload = payload(location);
+        payload.position(payload.position() + AGGREGATE_ID_SIZE);
+        int count = payload.getInt();
+        for (int i = 0; i < count; i++) {
+            int length = payload.getInt();
+            ByteBuffer slice = payload.slice();
+            slice.limit(length);
+            decoder.decode(aggregateId, slice);
+            payload.position(payload.position() + length);
+        }
+    }
+
+    private void readRecord(AggregateId aggregateId, long location, int skip, StreamCodec<EVENT> decoder, List<EVENT> events) {
+        ByteBuffer payload = payload(location);
+        payload.position(payload.position() + AGGREGATE_ID_SIZE);
+        int count = payload.getInt();
+        for (int i = 0; i < count; i++) {
+            int length = payload.getInt();
+            ByteBuffer slice = payload.slice();
+            slice.limit(length);
+            EVENT event = decoder.decode(aggregateId, slice);
+            if (i >= skip) {
+                events.add(event);
+            }
+            payload.position(payload.position() + length);
+        }
+    }
+
+    private List<Integer> openSegments() {
+        List<Integer> ids = uncheck(() -> {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(Segment::isSegment)
+                            .map(Segment::segmentId)
+                            .sorted()
+                            .collect(toList());
+            }
+        });
+        ids.forEach(this::openSegment);
+        return ids;
+    }
+
+    private void recover(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            index.clear();
+            currentSegment = openSegment(0);
+            return;
+        }
+
+        int segmentId = ids.get(0);
+        int offset = 0;
+        if (isIndexed(index.entryCount() - 1)) {
+            long location = index.location(index.entryCount() - 1);
+            index.recoverTable();
+            segmentId = segmentId(location);
+            offset = segments.get(segmentId).nextRecord(offset(location));
+        } else {
+            index.clear();
+        }
+
+        for (int id : ids) {
+            if (id >= segmentId) {
+                Segment segment = segments.get(id);
+                recover(segment, id == segmentId ? offset : 0, id == ids.get(ids.size() - 1));
+                currentSegment = segment;
+            }
+        }
+    }
+
+    private boolean isIndexed(int entry) {
+        if (entry == NO_ENTRY) {
+            return false;
+        }
+
+        long location = index.location(entry);
+        Segment segment = segments.get(segmentId(location));
+        return segment != null && segment.isValidRecord(offset(location)) && recordCountAt(location) == index.count(entry);
+    }
+
+    private void recover(Segment segment, int offset, boolean last) {
+        while (!segment.isEndOfLog(offset)) {
+            if (!segment.isValidRecord(offset)) {
+                if (!last) {
+                    throw new IllegalStateException(format("Corrupted record at %d in segment %d", offset, segment.id));
+                }
+                segment.truncateAt(offset);
+                return;
+            }
+
+            long location = location(segment.id, offset);
+            index.add(aggregateIdAt(location), location, recordCountAt(location));
+            offset = segment.nextRecord(offset);
+        }
+        segment.recoverAt(offset);
+    }
+
+    private int recordCountAt(long location) {
+        ByteBuffer payload = payload(location);
+        return payload.getInt(payload.position() + AGGREGATE_ID_SIZE);
+    }
+
+    private Segment openSegment(int id) {
+        Segment segment = Segment.open(directory, id, segmentSize);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private static long location(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int segmentId(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    private final class StreamReader implements Iterator<EVENT> {
+
+        private final AggregateId aggregateId;
+
+        private final int[] entries;
+
+        private final int fromVersion;
+
+        private final List<EVENT> chunk;
+
+        private StreamCodec<EVENT> decoder;
+
+        private int nextEntry;
+
+        private int cursor;
+
+        private int remaining;
+
+        private StreamReader(AggregateId aggregateId, int[] entries, int fromVersion, int toVersion) {
+            this.aggregateId = aggregateId;
+            this.entries = entries;
+            this.fromVersion = fromVersion;
+            this.chunk = new ArrayList<>();
+            this.remaining = toVersion - fromVersion;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (remaining > 0 && cursor == chunk.size()) {
+                if (nextEntry == entries.length) {
+                    return false;
+                }
+                readChunk();
+            }
+            return remaining > 0;
+        }
+
+        @Override
+        public EVENT next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return chunk.get(cursor++);
+        }
+
+        private void readChunk() {
+            chunk.clear();
+            cursor = 0;
+            int end = Math.min(entries.length, nextEntry + READ_CHUNK_RECORDS);
+            for (; nextEntry < end; nextEntry++) {
+                int entry = entries[nextEntry];
+                int ordinal = index.ordinal(entry);
+                if (keyframeOf(ordinal) == ordinal) {
+                    decoder = codec.streamCodec();
+                }
+                readRecord(aggregateId, index.location(entry), fromVersion - index.version(entry), decoder, chunk);
+            }
+        }
+    }
+}
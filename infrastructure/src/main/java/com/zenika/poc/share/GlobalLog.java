@@ -0,0 +1,150 @@
+package com.zenika.poc.share;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Lock-free log of stream batches. A batch gets its position when it is linked after the last batch, and a stream
+ * batch is linked only once its predecessors are, so positions follow each stream's order. Any appender or reader
+ * helps copy linked batches into the position index, so a writer failing half way cannot stall the head.
+ */
+final class GlobalLog<EVENT extends Event> {
+
+    private static final int CHUNK_BITS = 14;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final AtomicReference<Node> tail;
+
+    private final AtomicReference<Node> head;
+
+    private final AtomicReference<Event[][]> chunks;
+
+    GlobalLog() {
+        Node sentinel = new Node(null, 0);
+        this.tail = new AtomicReference<>(sentinel);
+        this.head = new AtomicReference<>(sentinel);
+        this.chunks = new AtomicReference<>(new Event[4][]);
+    }
+
+    long head() {
+        advance();
+        return head.get().end;
+    }
+
+    void append(EventStream<EVENT> stream) {
+        Deque<EventStream<EVENT>> pending = new ArrayDeque<>();
+        for (EventStream<EVENT> current = stream; !current.isLogged(); current = current.previous()) {
+            pending.push(current);
+        }
+        for (EventStream<EVENT> current : pending) {
+            link(current);
+        }
+        advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    List<EVENT> read(long fromPosition, int maxCount) {
+        advance();
+        long to = Math.min(head.get().end, fromPosition + maxCount);
+        Event[][] chunks = this.chunks.get();
+        List<EVENT> events = new ArrayList<>((int) Math.max(0, to - fromPosition));
+        for (long position = fromPosition; position < to; position++) {
+            events.add((EVENT) chunks[(int) (position >>> CHUNK_BITS)][(int) (position & CHUNK_MASK)]);
+        }
+        return events;
+    }
+
+    private void link(EventStream<EVENT> stream) {
+        while (true) {
+            Node last = tail.get();
+            Node next = last.next;
+            if (next != null) {
+                next.markLogged();
+                tail.compareAndSet(last, next);
+                continue;
+            }
+
+            last.markLogged();
+            if (stream.isLogged()) {
+                return;
+            }
+
+            Node node = new Node(stream, last.end);
+            if (last.casNext(node)) {
+                node.markLogged();
+                tail.compareAndSet(last, node);
+                return;
+            }
+        }
+    }
+
+    private void advance() {
+        while (true) {
+            Node published = head.get();
+            Node next = published.next;
+            if (next == null) {
+                return;
+            }
+
+            Event[] batch = next.stream.batch();
+            for (int i = 0; i < batch.length; i++) {
+                long position = next.position + i;
+                chunk(position)[(int) (position & CHUNK_MASK)] = batch[i];
+            }
+            head.compareAndSet(published, next);
+        }
+    }
+
+    private Event[] chunk(long position) {
+        int index = (int) (position >>> CHUNK_BITS);
+        while (true) {
+            Event[][] chunks = this.chunks.get();
+            if (index < chunks.length && chunks[index] != null) {
+                return chunks[index];
+            }
+
+            Event[][] grown = Arrays.copyOf(chunks, Math.max(chunks.length, Integer.highestOneBit(index) << 1));
+            grown[index] = new Event[CHUNK_SIZE];
+            if (this.chunks.compareAndSet(chunks, grown)) {
+                return grown[index];
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT = AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        private final EventStream<?> stream;
+
+        private final long position;
+
+        private final long end;
+
+        private volatile Node next;
+
+        private Node(EventStream<?> stream, long position) {
+            this.stream = stream;
+            this.position = position;
+            this.end = stream == null ? position : position + stream.batch().length;
+        }
+
+        private boolean casNext(Node node) {
+            return NEXT.compareAndSet(this, null, node);
+        }
+
+        private void markLogged() {
+            if (stream != null) {
+                stream.markLogged();
+            }
+        }
+    }
+}
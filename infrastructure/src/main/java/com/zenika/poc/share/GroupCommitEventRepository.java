@@ -0,0 +1,251 @@
+package com.zenika.poc.share;
+
+import com.google.common.base.Throwables;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.zenika.poc.share.Exceptions.uncheck;
+import static com.zenika.poc.share.MetricsProvider.metrics;
+import static com.zenika.poc.share.RepositoryMetrics.recordAppend;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+public class GroupCommitEventRepository<EVENT extends Event> implements EventRepository<EVENT>, Closeable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    public static final long DEFAULT_MAX_LINGER_MICROS = 200;
+
+    private final FileEventRepository<EVENT> delegate;
+
+    private final int maxBatchSize;
+
+    private final long maxLingerNanos;
+
+    private final BlockingQueue<PendingAppend<EVENT>> queue;
+
+    private final Thread writer;
+
+    private volatile boolean running;
+
+    private volatile long batches;
+
+    private volatile long appends;
+
+    private volatile int largestBatch;
+
+    private volatile long totalCommitLatencyNanos;
+
+    private volatile long maxCommitLatencyNanos;
+
+    public GroupCommitEventRepository(FileEventRepository<EVENT> delegate) {
+        this(delegate, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_LINGER_MICROS, TimeUnit.MICROSECONDS);
+    }
+
+    public GroupCommitEventRepository(FileEventRepository<EVENT> delegate, int maxBatchSize, long maxLinger, TimeUnit unit) {
+        checkArgument(maxBatchSize > 0, "Batch size must be positive");
+        checkArgument(maxLinger >= 0, "Linger must not be negative");
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = unit.toNanos(maxLinger);
+        this.queue = new LinkedBlockingQueue<>();
+        this.running = true;
+        this.writer = new Thread(this::writeLoop, "group-commit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public Events<EVENT> events(AggregateId aggregateId) {
+        return delegate.events(aggregateId);
+    }
+
+    @Override
+    public Events<EVENT> events(AggregateId aggregateId, int fromVersion) {
+        return delegate.events(aggregateId, fromVersion);
+    }
+
+    @Override
+    public Stream<EVENT> eventStream(AggregateId aggregateId, int fromVersion, int toVersion) {
+        return delegate.eventStream(aggregateId, fromVersion, toVersion);
+    }
+
+    @Override
+    public int version(AggregateId aggregateId) {
+        return delegate.version(aggregateId);
+    }
+
+    @Override
+    public Set<AggregateId> aggregateIds() {
+        return delegate.aggregateIds();
+    }
+
+    @Override
+    public long headPosition() {
+        return delegate.headPosition();
+    }
+
+    @Override
+    public List<EVENT> readAll(long fromPosition, int maxCount) {
+        return delegate.readAll(fromPosition, maxCount);
+    }
+
+    @Override
+    public void addEvents(Events<EVENT> events) {
+        addEvents(events, ANY_VERSION);
+    }
+
+    /**
+     * Appends are visible to readers before the batch is forced to disk. If forcing fails, the caller gets the
+     * exception but the events may remain readable and durable, so a blind retry can store them twice; append at an
+     * expected version to turn such a retry into a {@link com.zenika.poc.share.exception.WrongExpectedVersionException}.
+     */
+    @Override
+    public void addEvents(Events<EVENT> events, int expectedVersion) {
+        checkState(running, "Repository is closed");
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        PendingAppend<EVENT> append = new PendingAppend<>(events, expectedVersion);
+        queue.add(append);
+        if (!running && queue.remove(append)) {
+            throw new IllegalStateException("Repository is closed");
+        }
+        try {
+            append.done.join();
+        } catch (CompletionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+        recordAppend(metrics, start, events);
+    }
+
+    @Override
+    public void clearAllEvents() {
+        delegate.clearAllEvents();
+    }
+
+    public GroupCommitStatistics statistics() {
+        return new GroupCommitStatistics(batches, appends, largestBatch, totalCommitLatencyNanos, maxCommitLatencyNanos);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        uncheck(() -> writer.join());
+        delegate.close();
+    }
+
+    private void writeLoop() {
+        List<PendingAppend<EVENT>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend<EVENT> first = queue.poll(10, MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                collectBatch(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                running = false;
+                batch.forEach(append -> append.done.completeExceptionally(new IllegalStateException("Repository is closed", e)));
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Throwable e) {
+                batch.forEach(append -> append.done.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+
+        PendingAppend<EVENT> rejected;
+        while ((rejected = queue.poll()) != null) {
+            rejected.done.completeExceptionally(new IllegalStateException("Repository is closed"));
+        }
+    }
+
+    private void collectBatch(List<PendingAppend<EVENT>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxLingerNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+
+            PendingAppend<EVENT> next = queue.poll(remaining, NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<PendingAppend<EVENT>> batch) {
+        List<PendingAppend<EVENT>> appended = new ArrayList<>(batch.size());
+        for (PendingAppend<EVENT> append : batch) {
+            try {
+                delegate.append(append.events, append.expectedVersion);
+                appended.add(append);
+            } catch (RuntimeException e) {
+                append.done.completeExceptionally(e);
+            }
+        }
+
+        try {
+            delegate.flush();
+        } catch (RuntimeException e) {
+            appended.forEach(append -> append.done.completeExceptionally(e));
+            return;
+        }
+
+        long now = System.nanoTime();
+        long totalLatency = 0;
+        long maxLatency = maxCommitLatencyNanos;
+        for (PendingAppend<EVENT> append : appended) {
+            long latency = now - append.enqueuedAt;
+            totalLatency += latency;
+            maxLatency = Math.max(maxLatency, latency);
+        }
+
+        batches++;
+        appends += appended.size();
+        largestBatch = Math.max(largestBatch, batch.size());
+        totalCommitLatencyNanos += totalLatency;
+        maxCommitLatencyNanos = maxLatency;
+
+        appended.forEach(append -> append.done.complete(null));
+    }
+
+    private static final class PendingAppend<EVENT extends Event> {
+
+        private final Events<EVENT> events;
+
+        private final int expectedVersion;
+
+        private final long enqueuedAt;
+
+        private final CompletableFuture<Void> done;
+
+        private PendingAppend(Events<EVENT> events, int expectedVersion) {
+            this.events = events;
+            this.expectedVersion = expectedVersion;
+            this.enqueuedAt = System.nanoTime();
+            this.done = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.zenika.poc.share;
+
+import com.google.common.base.MoreObjects;
+
+public class GroupCommitStatistics {
+
+    public final long batches;
+
+    public final long appends;
+
+    public final int largestBatch;
+
+    public final long totalCommitLatencyNanos;
+
+    public final long maxCommitLatencyNanos;
+
+    public GroupCommitStatistics(long batches, long appends, int largestBatch,
+                                 long totalCommitLatencyNanos, long maxCommitLatencyNanos) {
+        this.batches = batches;
+        this.appends = appends;
+        this.largestBatch = largestBatch;
+        this.totalCommitLatencyNanos = totalCommitLatencyNanos;
+        this.maxCommitLatencyNanos = maxCommitLatencyNanos;
+    }
+
+    public double averageBatchSize() {
+        return batches == 0 ? 0 : (double) appends / batches;
+    }
+
+    public double averageCommitLatencyNanos() {
+        return appends == 0 ? 0 : (double) totalCommitLatencyNanos / appends;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("batches", batches)
+                          .add("appends", appends)
+                          .add("averageBatchSize", averageBatchSize())
+                          .add("largestBatch", largestBatch)
+                          .add("averageCommitLatencyNanos", averageCommitLatencyNanos())
+                          .add("maxCommitLatencyNanos", maxCommitLatencyNanos)
+                          .toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.zenika.poc.share;
+
+import com.google.common.base.MoreObjects;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class HistogramSnapshot {
+
+    public final long count;
+
+    public final long sum;
+
+    public final long max;
+
+    private final long[] buckets;
+
+    HistogramSnapshot(long[] buckets, long count, long sum, long max) {
+        this.buckets = buckets;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long percentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+        long total = 0;
+        for (long bucketCount : buckets) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(LockFreeHistogram.upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("count", count)
+                          .add("mean", mean())
+                          .add("p50", percentile(50))
+                          .add("p99", percentile(99))
+                          .add("p999", percentile(99.9))
+                          .add("max", max)
+                          .toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.zenika.poc.share;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class InMemoryCheckpointStore implements CheckpointStore {
+
+    private final ConcurrentMap<String, Long> checkpoints;
+
+    public InMemoryCheckpointStore() {
+        checkpoints = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public long checkpoint(String subscription) {
+        return checkpoints.getOrDefault(subscription, NO_CHECKPOINT);
+    }
+
+    @Override
+    public void saveCheckpoint(String subscription, long position) {
+        checkpoints.merge(subscription, position, Math::max);
+    }
+
+    @Override
+    public void clearAllCheckpoints() {
+        checkpoints.clear();
+    }
+}
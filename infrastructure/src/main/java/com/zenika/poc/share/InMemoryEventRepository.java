@@ -1,44 +1,115 @@
 package com.zenika.poc.share;
 
-import java.util.HashMap;
-import java.util.Map;
+import com.zenika.poc.share.exception.WrongExpectedVersionException;
 
-import static com.zenika.poc.share.Events.emptyEvents;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.zenika.poc.share.EventStream.emptyStream;
+import static com.zenika.poc.share.EventStream.toBatch;
+import static com.zenika.poc.share.Metrics.REPOSITORY_READ_ALL;
+import static com.zenika.poc.share.MetricsProvider.metrics;
+import static com.zenika.poc.share.RepositoryMetrics.recordAppend;
+import static com.zenika.poc.share.RepositoryMetrics.recordRead;
 
 public class InMemoryEventRepository<EVENT extends Event> implements EventRepository<EVENT> {
 
-    private final Map<String, Events<EVENT>> events;
+    private final ConcurrentMap<AggregateId, AtomicReference<EventStream<EVENT>>> streams;
 
-    private final Object lock;
+    private volatile GlobalLog<EVENT> log;
 
     public InMemoryEventRepository() {
-        events = new HashMap<>();
-        lock = new Object();
+        streams = new ConcurrentHashMap<>();
+        log = new GlobalLog<>();
     }
 
     @Override
-    public Events<EVENT> events(String aggregateId) {
-        synchronized (lock) {
-            return events.get(aggregateId);
-        }
+    public Events<EVENT> events(AggregateId aggregateId) {
+        return events(aggregateId, 0);
+    }
+
+    @Override
+    public Events<EVENT> events(AggregateId aggregateId, int fromVersion) {
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        AtomicReference<EventStream<EVENT>> stream = streams.get(aggregateId);
+        Events<EVENT> events = stream == null ? null : stream.get().toEvents(fromVersion);
+        recordRead(metrics, start, events);
+        return events;
+    }
+
+    @Override
+    public Stream<EVENT> eventStream(AggregateId aggregateId, int fromVersion, int toVersion) {
+        checkArgument(0 <= fromVersion && fromVersion <= toVersion, "Invalid version range [%s, %s)", fromVersion, toVersion);
+        AtomicReference<EventStream<EVENT>> stream = streams.get(aggregateId);
+        return stream == null ? Stream.empty() : stream.get().stream(fromVersion, toVersion);
+    }
+
+    @Override
+    public int version(AggregateId aggregateId) {
+        AtomicReference<EventStream<EVENT>> stream = streams.get(aggregateId);
+        return stream == null ? NO_STREAM : stream.get().version;
+    }
+
+    @Override
+    public Set<AggregateId> aggregateIds() {
+        return new HashSet<>(streams.keySet());
+    }
+
+    @Override
+    public long headPosition() {
+        return log.head();
+    }
+
+    @Override
+    public List<EVENT> readAll(long fromPosition, int maxCount) {
+        checkArgument(fromPosition >= 0, "Position must not be negative");
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        List<EVENT> events = log.read(fromPosition, maxCount);
+        metrics.stopTimer(REPOSITORY_READ_ALL, start);
+        return events;
     }
 
     @Override
     public void addEvents(Events<EVENT> events) {
-        synchronized (lock) {
-            Events<EVENT> currentEvents = this.events.get(events.aggregateId());
-            if (currentEvents == null) {
-                currentEvents = emptyEvents();
-                this.events.put(events.aggregateId(), currentEvents);
-            }
+        addEvents(events, ANY_VERSION);
+    }
 
-            currentEvents.addAll(events);
+    @Override
+    public void addEvents(Events<EVENT> events, int expectedVersion) {
+        if (events.aggregateId() == null) {
+            return;
         }
+
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        AtomicReference<EventStream<EVENT>> stream = streams.computeIfAbsent(events.aggregateId(),
+                                                                             id -> new AtomicReference<>(emptyStream()));
+        Event[] batch = toBatch(events);
+        EventStream<EVENT> current;
+        EventStream<EVENT> appended;
+        do {
+            current = stream.get();
+            if (expectedVersion != ANY_VERSION && current.version != expectedVersion) {
+                throw new WrongExpectedVersionException(events.aggregateId(), expectedVersion, current.version);
+            }
+            appended = current.append(batch);
+        } while (!stream.compareAndSet(current, appended));
+        log.append(appended);
+        recordAppend(metrics, start, events);
     }
 
     @Override
     public void clearAllEvents() {
-        events.clear();
+        streams.clear();
+        log = new GlobalLog<>();
     }
 
 }
@@ -0,0 +1,113 @@
+package com.zenika.poc.share;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class InMemoryMetrics implements Metrics {
+
+    private final ConcurrentMap<String, InMemoryCounter> counters;
+
+    private final ConcurrentMap<String, LockFreeHistogram> histograms;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, LockFreeHistogram>> taggedHistograms;
+
+    private final ConcurrentMap<String, LongSupplier> gauges;
+
+    public InMemoryMetrics() {
+        counters = new ConcurrentHashMap<>();
+        histograms = new ConcurrentHashMap<>();
+        taggedHistograms = new ConcurrentHashMap<>();
+        gauges = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean enabled() {
+        return true;
+    }
+
+    @Override
+    public Counter counter(String name) {
+        InMemoryCounter counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, n -> new InMemoryCounter());
+    }
+
+    @Override
+    public Histogram histogram(String name) {
+        return histogramOf(histograms, name);
+    }
+
+    @Override
+    public Histogram histogram(String name, String tag) {
+        ConcurrentMap<String, LockFreeHistogram> tagged = taggedHistograms.get(name);
+        if (tagged == null) {
+            tagged = taggedHistograms.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+        }
+        return histogramOf(tagged, tag);
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public long count(String name) {
+        InMemoryCounter counter = counters.get(name);
+        return counter == null ? 0 : counter.value.sum();
+    }
+
+    public long gaugeValue(String name) {
+        LongSupplier gauge = gauges.get(name);
+        return gauge == null ? 0 : gauge.getAsLong();
+    }
+
+    public HistogramSnapshot snapshot(String name) {
+        return histogramOf(histograms, name).snapshot();
+    }
+
+    public HistogramSnapshot snapshot(String name, String tag) {
+        return ((LockFreeHistogram) histogram(name, tag)).snapshot();
+    }
+
+    public String dump() {
+        StringBuilder dump = new StringBuilder();
+        new TreeMap<>(counters).forEach((name, counter) -> line(dump, name, counter.value.sum()));
+        new TreeMap<>(gauges).forEach((name, gauge) -> line(dump, name, gauge.getAsLong()));
+        new TreeMap<>(histograms).forEach((name, histogram) -> line(dump, name, histogram.snapshot()));
+        new TreeMap<>(taggedHistograms).forEach((name, tagged) -> {
+            for (Map.Entry<String, LockFreeHistogram> entry : new TreeMap<>(tagged).entrySet()) {
+                line(dump, name + "[" + entry.getKey() + "]", entry.getValue().snapshot());
+            }
+        });
+        return dump.toString();
+    }
+
+    public void clear() {
+        counters.clear();
+        histograms.clear();
+        taggedHistograms.clear();
+        gauges.clear();
+    }
+
+    private static LockFreeHistogram histogramOf(ConcurrentMap<String, LockFreeHistogram> histograms, String name) {
+        LockFreeHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, n -> new LockFreeHistogram());
+    }
+
+    private static void line(StringBuilder dump, String name, Object value) {
+        dump.append(name).append(' ').append(value).append(System.lineSeparator());
+    }
+
+    private static final class InMemoryCounter implements Counter {
+
+        private final LongAdder value = new LongAdder();
+
+        @Override
+        public void add(long value) {
+            this.value.add(value);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.zenika.poc.share;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class InMemorySnapshotRepository<STATE> implements SnapshotRepository<STATE> {
+
+    private final SnapshotCodec<STATE> codec;
+
+    private final ConcurrentMap<AggregateId, StoredSnapshot> snapshots;
+
+    public InMemorySnapshotRepository(SnapshotCodec<STATE> codec) {
+        this.codec = codec;
+        this.snapshots = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Snapshot<STATE> latestSnapshot(AggregateId aggregateId) {
+        StoredSnapshot stored = snapshots.get(aggregateId);
+        if (stored == null) {
+            return null;
+        }
+        return new Snapshot<>(aggregateId, stored.version, codec.decode(ByteBuffer.wrap(stored.state)));
+    }
+
+    @Override
+    public void saveSnapshot(Snapshot<STATE> snapshot) {
+        StoredSnapshot stored = new StoredSnapshot(snapshot.version, encode(snapshot.state));
+        snapshots.merge(snapshot.aggregateId, stored, (current, candidate) -> candidate.version > current.version ? candidate : current);
+    }
+
+    @Override
+    public void clearAllSnapshots() {
+        snapshots.clear();
+    }
+
+    private byte[] encode(STATE state) {
+        int capacity = 256;
+        while (true) {
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(capacity);
+                codec.encode(state, buffer);
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            } catch (BufferOverflowException e) {
+                capacity *= 2;
+            }
+        }
+    }
+
+    private static final class StoredSnapshot {
+
+        private final int version;
+
+        private final byte[] state;
+
+        private StoredSnapshot(int version, byte[] state) {
+            this.version = version;
+            this.state = state;
+        }
+    }
+}
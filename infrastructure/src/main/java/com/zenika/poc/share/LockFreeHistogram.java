@@ -0,0 +1,66 @@
+package com.zenika.poc.share;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LockFreeHistogram implements Histogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets;
+
+    private final LongAdder count;
+
+    private final LongAdder sum;
+
+    private final AtomicLong max;
+
+    public LockFreeHistogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    @Override
+    public void record(long value) {
+        long recorded = Math.max(0, value);
+        buckets.incrementAndGet(bucketOf(recorded));
+        count.increment();
+        sum.add(recorded);
+        long currentMax;
+        while (recorded > (currentMax = max.get()) && !max.compareAndSet(currentMax, recorded)) {
+        }
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new HistogramSnapshot(counts, count.sum(), sum.sum(), max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
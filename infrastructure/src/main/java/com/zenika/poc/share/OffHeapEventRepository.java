@@ -0,0 +1,414 @@
+package com.zenika.poc.share;
+
+import com.zenika.poc.share.exception.WrongExpectedVersionException;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.ByteBuffers.AGGREGATE_ID_SIZE;
+import static com.zenika.poc.share.ByteBuffers.putAggregateId;
+import static com.zenika.poc.share.Metrics.REPOSITORY_READ_ALL;
+import static com.zenika.poc.share.MetricsProvider.metrics;
+import static com.zenika.poc.share.RepositoryMetrics.recordAppend;
+import static com.zenika.poc.share.RepositoryMetrics.recordRead;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+
+public class OffHeapEventRepository<EVENT extends Event> implements EventRepository<EVENT> {
+
+    public static final int DEFAULT_ARENA_SIZE = 16 * 1024 * 1024;
+
+    private static final long NO_RECORD = -1;
+
+    private static final int RECORD_HEADER_SIZE = 16 + AGGREGATE_ID_SIZE;
+
+    private static final int POSITION_SIZE = 16;
+
+    private static final int INITIAL_POSITIONS = 64 * 1024;
+
+    private final EventCodec<EVENT> codec;
+
+    private final int arenaSize;
+
+    private final ConcurrentMap<AggregateId, Tail> streams;
+
+    private final Object lock;
+
+    private volatile State state;
+
+    private int arenaOffset;
+
+    private ByteBuffer scratch;
+
+    public OffHeapEventRepository(EventCodec<EVENT> codec) {
+        this(codec, DEFAULT_ARENA_SIZE);
+    }
+
+    public OffHeapEventRepository(EventCodec<EVENT> codec, int arenaSize) {
+        checkArgument(arenaSize > RECORD_HEADER_SIZE, "Arena size is too small");
+        this.codec = codec;
+        this.arenaSize = arenaSize;
+        this.streams = new ConcurrentHashMap<>();
+        this.lock = new Object();
+        this.scratch = ByteBuffer.allocate(4096);
+        reset();
+    }
+
+    @Override
+    public Events<EVENT> events(AggregateId aggregateId) {
+        return events(aggregateId, 0);
+    }
+
+    @Override
+    public Events<EVENT> events(AggregateId aggregateId, int fromVersion) {
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        Tail tail = streams.get(aggregateId);
+        if (tail == null) {
+            recordRead(metrics, start, null);
+            return null;
+        }
+
+        List<EVENT> events = new ArrayList<>(Math.max(0, tail.version - fromVersion));
+        for (long location : recordsFrom(tail, fromVersion)) {
+            readRecord(tail.arenas, aggregateId, location, fromVersion, Integer.MAX_VALUE, events);
+        }
+        Events<EVENT> result = new Events<>(events);
+        recordRead(metrics, start, result);
+        return result;
+    }
+
+    @Override
+    public Stream<EVENT> eventStream(AggregateId aggregateId, int fromVersion, int toVersion) {
+        checkArgument(0 <= fromVersion && fromVersion <= toVersion, "Invalid version range [%s, %s)", fromVersion, toVersion);
+        Tail tail = streams.get(aggregateId);
+        if (tail == null || fromVersion == toVersion) {
+            return Stream.empty();
+        }
+
+        RecordReader reader = new RecordReader(tail.arenas, aggregateId, recordsFrom(tail, fromVersion), fromVersion, toVersion);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, ORDERED | NONNULL), false);
+    }
+
+    @Override
+    public int version(AggregateId aggregateId) {
+        Tail tail = streams.get(aggregateId);
+        return tail == null ? NO_STREAM : tail.version;
+    }
+
+    @Override
+    public Set<AggregateId> aggregateIds() {
+        return new HashSet<>(streams.keySet());
+    }
+
+    @Override
+    public long headPosition() {
+        return state.head;
+    }
+
+    @Override
+    public List<EVENT> readAll(long fromPosition, int maxCount) {
+        checkArgument(fromPosition >= 0, "Position must not be negative");
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        State state = this.state;
+        ByteBuffer positions = state.positions;
+        ByteBuffer[] arenas = state.arenas;
+        long to = fromPosition + maxCount;
+        List<EVENT> events = new ArrayList<>();
+        for (int record = recordAt(positions, state.recordCount, fromPosition); record < state.recordCount && events.size() < maxCount; record++) {
+            long location = positions.getLong(record * POSITION_SIZE);
+            long position = positions.getLong(record * POSITION_SIZE + 8);
+            ByteBuffer arena = arenas[arena(location)];
+            int version = arena.getInt(offset(location) + 8);
+            readRecord(arenas, aggregateIdAt(arena, offset(location)), location,
+                       (int) Math.max(version, version + fromPosition - position),
+                       (int) Math.min(Integer.MAX_VALUE, version + to - position), events);
+        }
+        metrics.stopTimer(REPOSITORY_READ_ALL, start);
+        return events;
+    }
+
+    @Override
+    public void addEvents(Events<EVENT> events) {
+        addEvents(events, ANY_VERSION);
+    }
+
+    @Override
+    public void addEvents(Events<EVENT> events, int expectedVersion) {
+        AggregateId aggregateId = events.aggregateId();
+        if (aggregateId == null) {
+            return;
+        }
+
+        Metrics metrics = metrics();
+        long start = metrics.startTimer();
+        synchronized (lock) {
+            Tail tail = streams.get(aggregateId);
+            int currentVersion = tail == null ? NO_STREAM : tail.version;
+            if (expectedVersion != ANY_VERSION && currentVersion != expectedVersion) {
+                throw new WrongExpectedVersionException(aggregateId, expectedVersion, currentVersion);
+            }
+
+            ByteBuffer record = encodeRecord(aggregateId, events, tail);
+            State state = this.state;
+            ByteBuffer[] arenas = arenasFor(state.arenas, record.remaining());
+            long location = write(arenas, record);
+            ByteBuffer positions = addPosition(state, location);
+            this.state = new State(arenas, positions, state.recordCount + 1, state.head + events.size());
+            streams.put(aggregateId, new Tail(arenas, location, currentVersion + events.size()));
+        }
+        recordAppend(metrics, start, events);
+    }
+
+    @Override
+    public void clearAllEvents() {
+        synchronized (lock) {
+            streams.clear();
+            reset();
+        }
+    }
+
+    public long allocatedBytes() {
+        State state = this.state;
+        return (long) state.arenas.length * arenaSize + state.positions.capacity();
+    }
+
+    private void reset() {
+        arenaOffset = 0;
+        ByteBuffer[] arenas = {ByteBuffer.allocateDirect(arenaSize)};
+        state = new State(arenas, ByteBuffer.allocateDirect(INITIAL_POSITIONS * POSITION_SIZE), 0, 0);
+    }
+
+    private ByteBuffer encodeRecord(AggregateId aggregateId, Events<EVENT> events, Tail tail) {
+        while (true) {
+            try {
+                scratch.clear();
+                scratch.putLong(tail == null ? NO_RECORD : tail.location);
+                scratch.putInt(tail == null ? 0 : tail.version);
+                scratch.putInt(events.size());
+                putAggregateId(scratch, aggregateId);
+
+                StreamCodec<EVENT> encoder = codec.streamCodec();
+                for (EVENT event : events) {
+                    int lengthPosition = scratch.position();
+                    scratch.putInt(0);
+                    encoder.encode(event, scratch);
+                    scratch.putInt(lengthPosition, scratch.position() - lengthPosition - 4);
+                }
+
+                scratch.flip();
+                return scratch;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private ByteBuffer[] arenasFor(ByteBuffer[] arenas, int recordSize) {
+        checkArgument(recordSize <= arenaSize, "Events do not fit in an arena of %s bytes", arenaSize);
+        if (arenaOffset + recordSize <= arenaSize) {
+            return arenas;
+        }
+
+        arenas = Arrays.copyOf(arenas, arenas.length + 1);
+        arenas[arenas.length - 1] = ByteBuffer.allocateDirect(arenaSize);
+        arenaOffset = 0;
+        return arenas;
+    }
+
+    private long write(ByteBuffer[] arenas, ByteBuffer record) {
+        ByteBuffer target = arenas[arenas.length - 1].duplicate();
+        target.position(arenaOffset);
+        target.put(record);
+        long location = location(arenas.length - 1, arenaOffset);
+        arenaOffset = target.position();
+        return location;
+    }
+
+    private ByteBuffer addPosition(State state, long location) {
+        ByteBuffer positions = state.positions;
+        int offset = state.recordCount * POSITION_SIZE;
+        if (offset + POSITION_SIZE > positions.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(positions.capacity() * 2);
+            ByteBuffer source = positions.duplicate();
+            source.clear().limit(offset);
+            grown.put(source);
+            positions = grown;
+        }
+
+        positions.putLong(offset, location);
+        positions.putLong(offset + 8, state.head);
+        return positions;
+    }
+
+    private long[] recordsFrom(Tail tail, int fromVersion) {
+        long[] records = new long[4];
+        int count = 0;
+        for (long location = tail.location; location != NO_RECORD; ) {
+            ByteBuffer arena = tail.arenas[arena(location)];
+            int offset = offset(location);
+            if (arena.getInt(offset + 8) + arena.getInt(offset + 12) <= fromVersion) {
+                break;
+            }
+
+            if (count == records.length) {
+                records = Arrays.copyOf(records, count * 2);
+            }
+            records[count++] = location;
+            location = arena.getLong(offset);
+        }
+
+        long[] ordered = new long[count];
+        for (int i = 0; i < count; i++) {
+            ordered[i] = records[count - 1 - i];
+        }
+        return ordered;
+    }
+
+    private void readRecord(ByteBuffer[] arenas, AggregateId aggregateId, long location, int fromVersion, int toVersion, List<EVENT> events) {
+        ByteBuffer record = arenas[arena(location)].duplicate();
+        record.position(offset(location) + 8);
+        int version = record.getInt();
+        int count = Math.min(record.getInt(), toVersion - version);
+        record.position(record.position() + AGGREGATE_ID_SIZE);
+
+        StreamCodec<EVENT> decoder = codec.streamCodec();
+        for (int i = 0; i < count; i++) {
+            int length = record.getInt();
+            ByteBuffer slice = record.slice();
+            slice.limit(length);
+            EVENT event = decoder.decode(aggregateId, slice);
+            if (version + i >= fromVersion) {
+                events.add(event);
+            }
+            record.position(record.position() + length);
+        }
+    }
+
+    private static int recordAt(ByteBuffer positions, int recordCount, long position) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (positions.getLong(middle * POSITION_SIZE + 8) <= position) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return Math.max(0, high);
+    }
+
+    private static AggregateId aggregateIdAt(ByteBuffer arena, int offset) {
+        return aggregateId(arena.getLong(offset + 16), arena.getLong(offset + 24));
+    }
+
+    private static long location(int arena, int offset) {
+        return ((long) arena << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int arena(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    private static final class State {
+
+        private final ByteBuffer[] arenas;
+
+        private final ByteBuffer positions;
+
+        private final int recordCount;
+
+        private final long head;
+
+        private State(ByteBuffer[] arenas, ByteBuffer positions, int recordCount, long head) {
+            this.arenas = arenas;
+            this.positions = positions;
+            this.recordCount = recordCount;
+            this.head = head;
+        }
+    }
+
+    private static final class Tail {
+
+        private final ByteBuffer[] arenas;
+
+        private final long location;
+
+        private final int version;
+
+        private Tail(ByteBuffer[] arenas, long location, int version) {
+            this.arenas = arenas;
+            this.location = location;
+            this.version = version;
+        }
+    }
+
+    private final class RecordReader implements Iterator<EVENT> {
+
+        private final ByteBuffer[] arenas;
+
+        private final AggregateId aggregateId;
+
+        private final long[] records;
+
+        private final int fromVersion;
+
+        private final int toVersion;
+
+        private final List<EVENT> chunk;
+
+        private int nextRecord;
+
+        private int cursor;
+
+        private RecordReader(ByteBuffer[] arenas, AggregateId aggregateId, long[] records, int fromVersion, int toVersion) {
+            this.arenas = arenas;
+            this.aggregateId = aggregateId;
+            this.records = records;
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+            this.chunk = new ArrayList<>();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (cursor == chunk.size()) {
+                if (nextRecord == records.length) {
+                    return false;
+                }
+                chunk.clear();
+                cursor = 0;
+                readRecord(arenas, aggregateId, records[nextRecord++], fromVersion, toVersion, chunk);
+            }
+            return true;
+        }
+
+        @Override
+        public EVENT next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.get(cursor++);
+        }
+    }
+}
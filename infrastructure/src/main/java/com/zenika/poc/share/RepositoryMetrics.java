@@ -0,0 +1,23 @@
+package com.zenika.poc.share;
+
+import static com.zenika.poc.share.Metrics.REPOSITORY_APPEND;
+import static com.zenika.poc.share.Metrics.REPOSITORY_APPENDED_EVENTS;
+import static com.zenika.poc.share.Metrics.REPOSITORY_READ;
+import static com.zenika.poc.share.Metrics.REPOSITORY_READ_EVENTS;
+
+class RepositoryMetrics {
+
+    static void recordAppend(Metrics metrics, long start, Events<?> events) {
+        if (metrics.enabled()) {
+            metrics.stopTimer(REPOSITORY_APPEND, start);
+            metrics.counter(REPOSITORY_APPENDED_EVENTS).add(events.size());
+        }
+    }
+
+    static void recordRead(Metrics metrics, long start, Events<?> events) {
+        if (metrics.enabled()) {
+            metrics.stopTimer(REPOSITORY_READ, start);
+            metrics.counter(REPOSITORY_READ_EVENTS).add(events == null ? 0 : events.size());
+        }
+    }
+}
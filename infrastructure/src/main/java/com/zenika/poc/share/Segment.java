@@ -0,0 +1,145 @@
+package com.zenika.poc.share;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static com.zenika.poc.share.Exceptions.uncheck;
+import static java.lang.String.format;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+final class Segment implements Closeable {
+
+    static final int HEADER_SIZE = 8;
+
+    private static final String PREFIX = "segment-";
+
+    private static final String SUFFIX = ".log";
+
+    static String fileName(int id) {
+        return format("%s%010d%s", PREFIX, id, SUFFIX);
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    static int segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static Segment open(Path directory, int id, int size) {
+        Path path = directory.resolve(fileName(id));
+        return uncheck(() -> {
+            FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+            int mappedSize = (int) Math.max(size, channel.size());
+            return new Segment(id, path, channel, channel.map(READ_WRITE, 0, mappedSize));
+        });
+    }
+
+    final int id;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private int writePosition;
+
+    private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    boolean fits(int payloadSize) {
+        return writePosition + HEADER_SIZE + payloadSize <= buffer.capacity();
+    }
+
+    int append(ByteBuffer payload) {
+        int offset = writePosition;
+        int length = payload.remaining();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset + HEADER_SIZE);
+        target.put(payload);
+        target.putInt(offset + 4, (int) crc.getValue());
+        target.putInt(offset, length);
+
+        writePosition = offset + HEADER_SIZE + length;
+        return offset;
+    }
+
+    ByteBuffer payload(int offset) {
+        ByteBuffer payload = buffer.duplicate();
+        int length = payload.getInt(offset);
+        payload.limit(offset + HEADER_SIZE + length);
+        payload.position(offset + HEADER_SIZE);
+        return payload.slice();
+    }
+
+    int nextRecord(int offset) {
+        return offset + HEADER_SIZE + buffer.getInt(offset);
+    }
+
+    boolean isValidRecord(int offset) {
+        if (offset + HEADER_SIZE > buffer.capacity()) {
+            return false;
+        }
+
+        int length = buffer.getInt(offset);
+        if (length <= 0 || (long) offset + HEADER_SIZE + length > buffer.capacity()) {
+            return false;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload(offset));
+        return (int) crc.getValue() == buffer.getInt(offset + 4);
+    }
+
+    boolean isEndOfLog(int offset) {
+        return offset + HEADER_SIZE > buffer.capacity() || buffer.getInt(offset) == 0;
+    }
+
+    void recoverAt(int offset) {
+        writePosition = offset;
+    }
+
+    void truncateAt(int offset) {
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset);
+        byte[] zeros = new byte[Math.min(4096, target.remaining())];
+        while (target.hasRemaining()) {
+            target.put(zeros, 0, Math.min(zeros.length, target.remaining()));
+        }
+        writePosition = offset;
+        force();
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() {
+        close();
+        uncheck(() -> Files.deleteIfExists(path));
+    }
+
+    @Override
+    public void close() {
+        uncheck(channel::close);
+    }
+}
@@ -0,0 +1,11 @@
+package com.zenika.poc.share;
+
+import java.nio.ByteBuffer;
+
+public interface SnapshotCodec<STATE> {
+
+    void encode(STATE state, ByteBuffer buffer);
+
+    STATE decode(ByteBuffer buffer);
+
+}
@@ -0,0 +1,32 @@
+package com.zenika.poc.share;
+
+import java.nio.ByteBuffer;
+
+public interface StreamCodec<EVENT extends Event> {
+
+    static <EVENT extends Event> StreamCodec<EVENT> stateless(EventCodec<EVENT> codec) {
+        return new StreamCodec<EVENT>() {
+            @Override
+            public void encode(EVENT event, ByteBuffer buffer) {
+                codec.encode(event, buffer);
+            }
+
+            @Override
+            public EVENT decode(AggregateId aggregateId, ByteBuffer buffer) {
+                return codec.decode(aggregateId, buffer);
+            }
+
+            @Override
+            public StreamCodec<EVENT> copy() {
+                return this;
+            }
+        };
+    }
+
+    void encode(EVENT event, ByteBuffer buffer);
+
+    EVENT decode(AggregateId aggregateId, ByteBuffer buffer);
+
+    StreamCodec<EVENT> copy();
+
+}
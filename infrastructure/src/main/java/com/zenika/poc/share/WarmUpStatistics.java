@@ -0,0 +1,30 @@
+package com.zenika.poc.share;
+
+import com.google.common.base.MoreObjects;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+public class WarmUpStatistics {
+
+    public final long aggregates;
+
+    public final long elapsedNanos;
+
+    public WarmUpStatistics(long aggregates, long elapsedNanos) {
+        this.aggregates = aggregates;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double aggregatesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (double) aggregates * SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("aggregates", aggregates)
+                          .add("elapsedMillis", elapsedNanos / 1_000_000)
+                          .add("aggregatesPerSecond", aggregatesPerSecond())
+                          .toString();
+    }
+}
@@ -0,0 +1,244 @@
+package com.zenika.poc.bill;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.zenika.poc.bill.BillEvent.BillClosed;
+import com.zenika.poc.bill.BillEvent.BillOpened;
+import com.zenika.poc.bill.BillEvent.OrderPaid;
+import com.zenika.poc.bill.BillEvent.OrderTaken;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.FileEventRepository;
+import com.zenika.poc.share.StreamCodec;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.zenika.poc.bill.Item.interner;
+import static com.zenika.poc.bill.Order.emptyOrder;
+import static com.zenika.poc.bill.Order.order;
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BillEventCodecTest {
+
+    private static final AggregateId BILL_ID = aggregateId("2f1b6c1e-8a4f-4d6e-9a57-1f3c1d1f0b2a");
+
+    private static final AggregateId OTHER_BILL_ID = aggregateId("5b7e2d90-3c4a-4f1e-8d6b-2a9c0e1f3b4d");
+
+    private static final Item COFFEE = new Item("coffee", 1.5);
+
+    private static final Item CAKE = new Item("g\u00e2teau", 3);
+
+    private static final Item CROISSANT = new Item("croissant", 1.10);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final BillEventCodec codec = new BillEventCodec();
+
+    @Test
+    public void should_round_trip_bill_opened() {
+        assertRoundTrip(new BillOpened(BILL_ID));
+    }
+
+    @Test
+    public void should_round_trip_order_taken() {
+        assertRoundTrip(new OrderTaken(BILL_ID, order(COFFEE, 2, CAKE, 1, CROISSANT, 300)));
+    }
+
+    @Test
+    public void should_round_trip_order_paid() {
+        assertRoundTrip(new OrderPaid(BILL_ID, order(COFFEE, 2, CAKE, 1)));
+    }
+
+    @Test
+    public void should_round_trip_bill_closed() {
+        assertRoundTrip(new BillClosed(BILL_ID));
+    }
+
+    @Test
+    public void should_be_smaller_than_gson() {
+        // Given
+        OrderTaken event = new OrderTaken(BILL_ID, order(COFFEE, 2, CAKE, 1, CROISSANT, 3));
+        Gson gson = new GsonBuilder().enableComplexMapKeySerialization().create();
+
+        // When
+        int binarySize = encode(event).remaining();
+        int gsonSize = gson.toJson(ImmutableMap.of("id", event.aggregateId.toString(), "orderedItem", toMap(event.orderedItem))).getBytes(UTF_8).length;
+
+        // Then
+        assertThat(binarySize * 3).isLessThan(gsonSize);
+    }
+
+    @Test
+    public void should_intern_decoded_items() {
+        // Given
+        ByteBuffer buffer = encode(new OrderTaken(BILL_ID, order(new Item("latte", 2.75), 1)));
+        codec.decode(BILL_ID, buffer.duplicate());
+        long hits = interner().hits();
+
+        // When
+        BillEvent decoded = codec.decode(BILL_ID, buffer);
+
+        // Then
+        assertThat(interner().hits()).isGreaterThan(hits);
+        ((OrderTaken) decoded).orderedItem.forEach((item, quantity) -> assertThat(item).isSameAs(interner().intern(new Item("latte", 2.75))));
+    }
+
+    @Test
+    public void should_round_trip_order_deltas_through_stream_codec() {
+        // Given
+        StreamCodec<BillEvent> encoder = codec.streamCodec();
+        StreamCodec<BillEvent> decoder = codec.streamCodec();
+        Order ordered = order(COFFEE, 2);
+        Order paid = order(COFFEE, 1);
+        List<BillEvent> events = asList(new BillOpened(BILL_ID),
+                                        new OrderTaken(BILL_ID, ordered),
+                                        new OrderTaken(BILL_ID, ordered.add(order(CAKE, 1, CROISSANT, 3))),
+                                        new OrderPaid(BILL_ID, paid),
+                                        new OrderTaken(BILL_ID, ordered.add(CAKE, 1).remove(COFFEE, 1)),
+                                        new OrderPaid(BILL_ID, paid.add(COFFEE, 1)),
+                                        new BillClosed(BILL_ID));
+
+        // When
+        List<BillEvent> decoded = new ArrayList<>();
+        for (BillEvent event : events) {
+            ByteBuffer buffer = ByteBuffer.allocate(1024);
+            encoder.encode(event, buffer);
+            buffer.flip();
+            decoded.add(decoder.decode(BILL_ID, buffer));
+        }
+
+        // Then
+        assertThat(decoded).isEqualTo(events);
+    }
+
+    @Test
+    public void should_store_order_deltas_and_rebuild_orders_after_restart() {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        List<BillEvent> events = new ArrayList<>();
+        Order ordered = emptyOrder();
+        for (int round = 0; round < 40; round++) {
+            ordered = ordered.add(new Item("item-" + round, round), 1);
+            events.add(new OrderTaken(BILL_ID, ordered));
+        }
+        try (FileEventRepository<BillEvent> repository = new FileEventRepository<>(directory, codec)) {
+            events.subList(0, 30).forEach(event -> repository.addEvents(singletonEvents(event)));
+        }
+
+        // When
+        List<BillEvent> all;
+        List<BillEvent> tail;
+        try (FileEventRepository<BillEvent> repository = new FileEventRepository<>(directory, codec)) {
+            events.subList(30, 40).forEach(event -> repository.addEvents(singletonEvents(event)));
+            all = newArrayList(repository.events(BILL_ID));
+            tail = newArrayList(repository.events(BILL_ID, 35));
+        }
+
+        // Then
+        assertThat(all).isEqualTo(events);
+        assertThat(tail).isEqualTo(events.subList(35, 40));
+    }
+
+    @Test
+    public void should_stream_order_deltas_in_version_range_across_chunks() {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        List<BillEvent> events = new ArrayList<>();
+        Order ordered = emptyOrder();
+        for (int round = 0; round < 200; round++) {
+            ordered = ordered.add(new Item("item-" + round % 50, round), 1);
+            events.add(new OrderTaken(BILL_ID, ordered));
+        }
+
+        // When
+        List<BillEvent> all;
+        List<BillEvent> range;
+        try (FileEventRepository<BillEvent> repository = new FileEventRepository<>(directory, codec)) {
+            events.forEach(event -> repository.addEvents(singletonEvents(event)));
+            all = repository.eventStream(BILL_ID).collect(toList());
+            range = repository.eventStream(BILL_ID, 70, 150).collect(toList());
+        }
+
+        // Then
+        assertThat(all).isEqualTo(events);
+        assertThat(range).isEqualTo(events.subList(70, 150));
+    }
+
+    @Test
+    public void should_read_all_interleaved_bills_from_any_position() {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        List<BillEvent> events = new ArrayList<>();
+        Order ordered = emptyOrder();
+        for (int round = 0; round < 40; round++) {
+            ordered = ordered.add(new Item("item-" + round, round), 1);
+            events.add(new OrderTaken(BILL_ID, ordered));
+            events.add(new OrderTaken(OTHER_BILL_ID, ordered.add(COFFEE, round + 1)));
+        }
+        try (FileEventRepository<BillEvent> repository = new FileEventRepository<>(directory, codec)) {
+            events.forEach(event -> repository.addEvents(singletonEvents(event)));
+        }
+
+        // When
+        List<BillEvent> tail;
+        try (FileEventRepository<BillEvent> repository = new FileEventRepository<>(directory, codec)) {
+            tail = repository.readAll(45, 20);
+        }
+
+        // Then
+        assertThat(tail).isEqualTo(events.subList(45, 65));
+    }
+
+    @Test
+    public void should_encode_cumulative_orders_as_deltas() {
+        // Given
+        StreamCodec<BillEvent> encoder = codec.streamCodec();
+        ByteBuffer full = ByteBuffer.allocate(64 * 1024);
+        ByteBuffer delta = ByteBuffer.allocate(64 * 1024);
+        Order ordered = emptyOrder();
+
+        // When
+        for (int round = 0; round < 50; round++) {
+            ordered = ordered.add(new Item("item-" + round, round), 1);
+            codec.encode(new OrderTaken(BILL_ID, ordered), full);
+            encoder.encode(new OrderTaken(BILL_ID, ordered), delta);
+        }
+
+        // Then
+        assertThat(delta.position() * 20).isLessThan(full.position());
+    }
+
+    private Map<Item, Integer> toMap(Order order) {
+        Map<Item, Integer> items = new HashMap<>();
+        order.forEach(items::put);
+        return items;
+    }
+
+    private void assertRoundTrip(BillEvent event) {
+        BillEvent decoded = codec.decode(BILL_ID, encode(event));
+
+        assertThat(decoded).isInstanceOf(event.getClass()).isEqualTo(event);
+    }
+
+    private ByteBuffer encode(BillEvent event) {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        codec.encode(event, buffer);
+        buffer.flip();
+        return buffer;
+    }
+}
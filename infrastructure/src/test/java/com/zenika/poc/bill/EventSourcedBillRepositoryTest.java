@@ -0,0 +1,198 @@
+package com.zenika.poc.bill;
+
+import com.zenika.poc.bill.exception.UnknownBillException;
+import com.zenika.poc.share.AggregateId;
+import com.zenika.poc.share.InMemoryEventRepository;
+import com.zenika.poc.share.InMemorySnapshotRepository;
+import com.zenika.poc.share.Snapshot;
+import com.zenika.poc.share.WarmUpStatistics;
+import com.zenika.poc.share.exception.WrongExpectedVersionException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.zenika.poc.bill.Bill.createBill;
+import static com.zenika.poc.bill.EventSourcedBillRepository.billCache;
+import static com.zenika.poc.bill.Order.order;
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static com.zenika.poc.share.SnapshotPolicy.everyEvents;
+import static com.zenika.poc.share.SnapshotPolicy.never;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.catchThrowable;
+
+public class EventSourcedBillRepositoryTest {
+
+    private static final Item COFFEE = new Item("coffee", 1.5);
+
+    private final InMemorySnapshotRepository<BillState> snapshots = new InMemorySnapshotRepository<>(new BillStateCodec());
+
+    private final EventSourcedBillRepository repository = new EventSourcedBillRepository(new InMemoryEventRepository<>(), snapshots, everyEvents(3));
+
+    @Test
+    public void should_find_saved_bill() {
+        // Given
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 2));
+
+        // When
+        repository.save(bill);
+
+        // Then
+        assertThat(repository.findById(bill.id)).isEqualTo(bill);
+    }
+
+    @Test
+    public void should_snapshot_every_n_events() {
+        // Given
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 2));
+        repository.save(bill);
+
+        // When
+        Bill loaded = repository.findById(bill.id);
+        loaded.order(order(COFFEE, 1));
+        repository.save(loaded);
+
+        // Then
+        Snapshot<BillState> snapshot = snapshots.latestSnapshot(bill.id);
+        assertThat(snapshot.version).isEqualTo(3);
+        assertThat(snapshot.state).isEqualTo(new BillState(order(COFFEE, 3), order(COFFEE, 0), false));
+    }
+
+    @Test
+    public void should_replay_events_after_snapshot() {
+        // Given
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 2));
+        bill.order(order(COFFEE, 1));
+        repository.save(bill);
+
+        // When
+        Bill loaded = repository.findById(bill.id);
+        loaded.pay(order(COFFEE, 3));
+        repository.save(loaded);
+
+        // Then
+        Bill reloaded = repository.findById(bill.id);
+        assertThat(reloaded).isEqualTo(loaded);
+        assertThat(reloaded.version()).isEqualTo(4);
+    }
+
+    @Test
+    public void should_save_same_bill_again_after_modifying_it() {
+        // Given
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 2));
+        repository.save(bill);
+
+        // When
+        bill.pay(order(COFFEE, 2));
+        repository.save(bill);
+
+        // Then
+        assertThat(bill.events()).isEmpty();
+        assertThat(bill.version()).isEqualTo(3);
+        assertThat(repository.findById(bill.id)).isEqualTo(bill);
+    }
+
+    @Test
+    public void should_fail_when_bill_is_unknown() {
+        // When
+        Throwable throwable = catchThrowable(() -> repository.findById(randomAggregateId()));
+
+        // Then
+        assertThat(throwable).isInstanceOf(UnknownBillException.class);
+    }
+
+    @Test
+    public void should_reject_save_of_bill_modified_concurrently() {
+        // Given
+        Bill bill = createBill();
+        repository.save(bill);
+        Bill first = repository.findById(bill.id);
+        Bill second = repository.findById(bill.id);
+        first.order(order(COFFEE, 1));
+        second.order(order(COFFEE, 2));
+        repository.save(first);
+
+        // When
+        Throwable throwable = catchThrowable(() -> repository.save(second));
+
+        // Then
+        assertThat(throwable).isInstanceOf(WrongExpectedVersionException.class);
+        assertThat(repository.findById(bill.id)).isEqualTo(first);
+    }
+
+    @Test
+    public void should_serve_cached_bill_and_apply_saved_events_to_it() {
+        // Given
+        EventSourcedBillRepository cached = new EventSourcedBillRepository(new InMemoryEventRepository<>(), snapshots, never(), billCache(100));
+        Bill bill = createBill();
+        bill.order(order(COFFEE, 2));
+        cached.save(bill);
+
+        // When
+        Bill loaded = cached.findById(bill.id);
+        loaded.pay(order(COFFEE, 2));
+        cached.save(loaded);
+        Bill reloaded = cached.findById(bill.id);
+
+        // Then
+        assertThat(reloaded).isEqualTo(loaded);
+        assertThat(reloaded.version()).isEqualTo(3);
+        assertThat(cached.cacheStatistics().hits).isEqualTo(2);
+        assertThat(cached.cacheStatistics().misses).isEqualTo(0);
+    }
+
+    @Test
+    public void should_evict_bills_beyond_cache_weight() {
+        // Given
+        EventSourcedBillRepository cached = new EventSourcedBillRepository(new InMemoryEventRepository<>(), snapshots, never(), billCache(2));
+        Bill first = createBill();
+        first.order(order(COFFEE, 1));
+        Bill second = createBill();
+        second.order(order(COFFEE, 1));
+
+        // When
+        cached.save(first);
+        cached.save(second);
+        Bill loaded = cached.findById(first.id);
+
+        // Then
+        assertThat(loaded).isEqualTo(first);
+        assertThat(cached.cacheStatistics().evictions).isGreaterThanOrEqualTo(1);
+        assertThat(cached.cacheStatistics().misses).isEqualTo(1);
+    }
+
+    @Test
+    public void should_warm_up_cache_with_every_bill_in_parallel() {
+        // Given
+        InMemoryEventRepository<BillEvent> events = new InMemoryEventRepository<>();
+        EventSourcedBillRepository writer = new EventSourcedBillRepository(events, snapshots, never());
+        List<Bill> bills = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Bill bill = createBill();
+            bill.order(order(COFFEE, i + 1));
+            writer.save(bill);
+            bills.add(bill);
+        }
+        EventSourcedBillRepository cached = new EventSourcedBillRepository(events, snapshots, never(), billCache(1000));
+        Set<AggregateId> loaded = ConcurrentHashMap.newKeySet();
+
+        // When
+        WarmUpStatistics statistics = cached.warmUp(events.aggregateIds(), new ForkJoinPool(4), bill -> loaded.add(bill.id));
+
+        // Then
+        assertThat(statistics.aggregates).isEqualTo(100);
+        assertThat(loaded).hasSize(100);
+        for (Bill bill : bills) {
+            assertThat(cached.findById(bill.id)).isEqualTo(bill);
+        }
+        assertThat(cached.cacheStatistics().hits).isEqualTo(100);
+        assertThat(cached.cacheStatistics().misses).isEqualTo(0);
+    }
+}
@@ -0,0 +1,69 @@
+package com.zenika.poc.item;
+
+import com.zenika.poc.item.exception.UnknownItemException;
+import com.zenika.poc.share.InMemoryEventRepository;
+import com.zenika.poc.share.InMemorySnapshotRepository;
+import org.junit.Test;
+
+import static com.zenika.poc.item.Item.createStock;
+import static com.zenika.poc.share.AggregateCache.maximumSize;
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static com.zenika.poc.share.SnapshotPolicy.everyEvents;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.catchThrowable;
+
+public class EventSourcedItemRepositoryTest {
+
+    private final InMemorySnapshotRepository<ItemState> snapshots = new InMemorySnapshotRepository<>(new ItemStateCodec());
+
+    private final EventSourcedItemRepository repository = new EventSourcedItemRepository(new InMemoryEventRepository<>(), snapshots, everyEvents(10));
+
+    @Test
+    public void should_load_stock_from_latest_snapshot() {
+        // Given
+        Item item = createStock("coffee", 10, 1);
+        repository.save(item);
+        for (int i = 0; i < 25; i++) {
+            Item loaded = repository.findById(item.id);
+            loaded.add(1);
+            repository.save(loaded);
+        }
+
+        // When
+        Item loaded = repository.findById(item.id);
+
+        // Then
+        assertThat(loaded).isEqualTo(createStock(item.id, "coffee", 35, 1));
+        assertThat(loaded.version()).isEqualTo(26);
+        assertThat(snapshots.latestSnapshot(item.id).version).isEqualTo(20);
+    }
+
+    @Test
+    public void should_fail_when_item_is_unknown() {
+        // When
+        Throwable throwable = catchThrowable(() -> repository.findById(randomAggregateId()));
+
+        // Then
+        assertThat(throwable).isInstanceOf(UnknownItemException.class);
+    }
+
+    @Test
+    public void should_keep_cached_stock_up_to_date_and_snapshot_from_it() {
+        // Given
+        EventSourcedItemRepository cached = new EventSourcedItemRepository(new InMemoryEventRepository<>(), snapshots, everyEvents(10), maximumSize(10));
+        Item item = createStock("coffee", 10, 1);
+        cached.save(item);
+
+        // When
+        for (int i = 0; i < 25; i++) {
+            Item loaded = cached.findById(item.id);
+            loaded.add(1);
+            cached.save(loaded);
+        }
+
+        // Then
+        assertThat(cached.findById(item.id)).isEqualTo(createStock(item.id, "coffee", 35, 1));
+        assertThat(snapshots.latestSnapshot(item.id).state).isEqualTo(new ItemState("coffee", 29, 1));
+        assertThat(cached.cacheStatistics().hitRate()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.zenika.poc.item;
+
+import com.google.gson.Gson;
+import com.zenika.poc.item.ItemEvent.ItemAdded;
+import com.zenika.poc.item.ItemEvent.ItemCreated;
+import com.zenika.poc.item.ItemEvent.ItemNameChanged;
+import com.zenika.poc.item.ItemEvent.ItemPriceChanged;
+import com.zenika.poc.item.ItemEvent.ItemReserved;
+import com.zenika.poc.share.AggregateId;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemEventCodecTest {
+
+    private static final AggregateId ITEM_ID = aggregateId("8c0d5f34-7a51-4c3e-b6a1-0e9b2d4c6f7a");
+
+    private final ItemEventCodec codec = new ItemEventCodec();
+
+    @Test
+    public void should_round_trip_item_created() {
+        assertRoundTrip(new ItemCreated(ITEM_ID, "coffee", 10, 1.5));
+    }
+
+    @Test
+    public void should_round_trip_item_added() {
+        assertRoundTrip(new ItemAdded(ITEM_ID, 1_000_000));
+    }
+
+    @Test
+    public void should_round_trip_item_reserved() {
+        assertRoundTrip(new ItemReserved(ITEM_ID, 5));
+    }
+
+    @Test
+    public void should_round_trip_item_price_changed() {
+        assertRoundTrip(new ItemPriceChanged(ITEM_ID, 2.35));
+    }
+
+    @Test
+    public void should_round_trip_item_name_changed() {
+        assertRoundTrip(new ItemNameChanged(ITEM_ID, "caf\u00e9 cr\u00e8me"));
+    }
+
+    @Test
+    public void should_be_smaller_than_gson() {
+        // Given
+        ItemCreated event = new ItemCreated(ITEM_ID, "coffee", 10, 1.5);
+
+        // When
+        int binarySize = encode(event).remaining();
+        int gsonSize = new Gson().toJson(event).getBytes(UTF_8).length;
+
+        // Then
+        assertThat(binarySize * 3).isLessThan(gsonSize);
+    }
+
+    @Test
+    public void should_decode_equal_names_to_the_same_instance() {
+        // Given
+        ByteBuffer first = encode(new ItemNameChanged(ITEM_ID, "espresso"));
+        ByteBuffer second = encode(new ItemNameChanged(ITEM_ID, "espresso"));
+        ByteBuffer accented = encode(new ItemNameChanged(ITEM_ID, "caf\u00e9 cr\u00e8me"));
+
+        // When
+        ItemNameChanged decoded = (ItemNameChanged) codec.decode(ITEM_ID, first);
+        ItemNameChanged other = (ItemNameChanged) codec.decode(ITEM_ID, second);
+        ItemNameChanged accentedDecoded = (ItemNameChanged) codec.decode(ITEM_ID, accented);
+        ItemNameChanged accentedOther = (ItemNameChanged) codec.decode(ITEM_ID, encode(new ItemNameChanged(ITEM_ID, "caf\u00e9 cr\u00e8me")));
+
+        // Then
+        assertThat(other.newName).isSameAs(decoded.newName);
+        assertThat(accentedOther.newName).isSameAs(accentedDecoded.newName).isEqualTo("caf\u00e9 cr\u00e8me");
+        assertThat(first.remaining()).isZero();
+        assertThat(ItemEventCodec.names().hits()).isGreaterThanOrEqualTo(2);
+    }
+
+    private void assertRoundTrip(ItemEvent event) {
+        ItemEvent decoded = codec.decode(ITEM_ID, encode(event));
+
+        assertThat(decoded).isInstanceOf(event.getClass()).isEqualTo(event);
+    }
+
+    private ByteBuffer encode(ItemEvent event) {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        codec.encode(event, buffer);
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,338 @@
+package com.zenika.poc.share;
+
+import com.zenika.poc.share.exception.WrongExpectedVersionException;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static com.zenika.poc.share.EventRepository.NO_STREAM;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.catchThrowable;
+
+public abstract class AbstractEventRepositoryTest {
+
+    protected static class EventTest extends Event {
+
+        public EventTest(AggregateId aggregateId) {
+            super(aggregateId);
+        }
+
+        @Override
+        public String eventType() {
+            return "test";
+        }
+    }
+
+    protected static final AggregateId ID = aggregateId(0, 1);
+
+    protected static final AggregateId OTHER_ID = aggregateId(0, 2);
+
+    private static final AggregateId A = aggregateId(0, 10);
+
+    private static final AggregateId B = aggregateId(0, 11);
+
+    private static final AggregateId C = aggregateId(0, 12);
+
+    private static final AggregateId D = aggregateId(0, 13);
+
+    protected static final EventCodec<EventTest> EVENT_TEST_CODEC = new EventCodec<EventTest>() {
+        @Override
+        public void encode(EventTest event, ByteBuffer buffer) {
+        }
+
+        @Override
+        public EventTest decode(AggregateId aggregateId, ByteBuffer buffer) {
+            return new EventTest(aggregateId);
+        }
+    };
+
+    protected abstract EventRepository<EventTest> newRepository();
+
+    @Test
+    public void should_insert_events() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        Events<EventTest> events = singletonEvents(new EventTest(ID));
+
+        // When
+        repository.addEvents(events);
+
+        // Then
+        assertThat(repository.events(ID)).isEqualTo(events);
+    }
+
+    @Test
+    public void should_insert_new_events() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        EventTest event1 = new EventTest(ID);
+        EventTest event2 = new EventTest(ID);
+        repository.addEvents(singletonEvents(event1));
+
+        // When
+        repository.addEvents(singletonEvents(event2));
+
+
+        // Then
+        assertThat(repository.events(ID)).containsExactly(event1, event2);
+    }
+
+    @Test
+    public void should_stream_events_in_version_range() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.addEvents(new Events<>(new EventTest(ID), new EventTest(ID)));
+        repository.addEvents(new Events<>(new EventTest(ID), new EventTest(ID), new EventTest(ID)));
+
+        // When
+        long all = repository.eventStream(ID).count();
+        long range = repository.eventStream(ID, 2, 5).count();
+        long tail = repository.eventStream(ID, 4, Integer.MAX_VALUE).count();
+
+        // Then
+        assertThat(all).isEqualTo(6);
+        assertThat(range).isEqualTo(3);
+        assertThat(tail).isEqualTo(2);
+        assertThat(repository.eventStream(randomAggregateId()).count()).isZero();
+    }
+
+    @Test
+    public void should_insert_events_concurrently() throws Exception {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        int threads = 8;
+        int eventsPerThread = 1000;
+        ExecutorService executor = newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            AggregateId aggregateId = aggregateId(0, t % 2);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < eventsPerThread; i++) {
+                    repository.addEvents(singletonEvents(new EventTest(aggregateId)));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(repository.events(aggregateId(0, 0))).hasSize(threads / 2 * eventsPerThread);
+        assertThat(repository.events(aggregateId(0, 1))).hasSize(threads / 2 * eventsPerThread);
+    }
+
+    @Test
+    public void should_read_whole_records_while_appending() throws Exception {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        int aggregates = 4;
+        int records = 500;
+        ExecutorService executor = newFixedThreadPool(1);
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; i < records; i++) {
+                AggregateId aggregateId = aggregateId(0, i % aggregates);
+                repository.addEvents(new Events<>(new EventTest(aggregateId), new EventTest(aggregateId)));
+            }
+        });
+
+        // When
+        List<Integer> tornSizes = new ArrayList<>();
+        while (!writer.isDone()) {
+            for (int a = 0; a < aggregates; a++) {
+                Events<EventTest> events = repository.events(aggregateId(0, a));
+                addIfOdd(tornSizes, events == null ? 0 : events.size());
+                addIfOdd(tornSizes, repository.version(aggregateId(0, a)));
+            }
+            addIfOdd(tornSizes, repository.readAll(0, Integer.MAX_VALUE).size());
+        }
+        writer.get();
+        executor.shutdown();
+
+        // Then
+        assertThat(tornSizes).isEmpty();
+        assertThat(repository.readAll(0, Integer.MAX_VALUE)).hasSize(2 * records);
+    }
+
+    @Test
+    public void should_clear_all_events() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+
+        // When
+        repository.clearAllEvents();
+
+        // Then
+        assertThat(repository.events(ID)).isNull();
+    }
+
+    @Test
+    public void should_insert_events_at_expected_version() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        repository.addEvents(singletonEvents(new EventTest(ID)), NO_STREAM);
+
+        // When
+        repository.addEvents(singletonEvents(new EventTest(ID)), 1);
+
+        // Then
+        assertThat(repository.version(ID)).isEqualTo(2);
+    }
+
+    @Test
+    public void should_reject_invalid_version_range() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+
+        // When
+        Throwable negative = catchThrowable(() -> repository.eventStream(ID, -1, 1));
+        Throwable reversed = catchThrowable(() -> repository.eventStream(ID, 1, 0));
+
+        Throwable unknown = catchThrowable(() -> repository.eventStream(randomAggregateId(), 1, 0));
+
+        // Then
+        assertThat(negative).isInstanceOf(IllegalArgumentException.class);
+        assertThat(reversed).isInstanceOf(IllegalArgumentException.class);
+        assertThat(unknown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void should_clamp_version_range_to_stream_version() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        repository.addEvents(new Events<>(new EventTest(ID), new EventTest(ID)));
+
+        // When
+        long beyond = repository.eventStream(ID, 5, 10).count();
+        long tail = repository.eventStream(ID, 1, 10).count();
+
+        // Then
+        assertThat(beyond).isZero();
+        assertThat(tail).isEqualTo(1);
+    }
+
+    @Test
+    public void should_fail_when_stream_moved_past_expected_version() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+
+        // When
+        Throwable throwable = catchThrowable(() -> repository.addEvents(singletonEvents(new EventTest(ID)), 1));
+
+        // Then
+        assertThat(throwable).isInstanceOf(WrongExpectedVersionException.class);
+        assertThat(repository.version(ID)).isEqualTo(2);
+    }
+
+    @Test
+    public void should_accept_only_one_concurrent_append_at_same_version() throws Exception {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        int threads = 8;
+        ExecutorService executor = newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    repository.addEvents(singletonEvents(new EventTest(ID)), NO_STREAM);
+                } catch (WrongExpectedVersionException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(conflicts.get()).isEqualTo(threads - 1);
+        assertThat(repository.version(ID)).isEqualTo(1);
+    }
+
+    @Test
+    public void should_read_events_from_version() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        EventTest event1 = new EventTest(ID);
+        EventTest event2 = new EventTest(ID);
+        EventTest event3 = new EventTest(ID);
+        repository.addEvents(singletonEvents(event1));
+        repository.addEvents(new Events<>(event2, event3));
+
+        // When
+        Events<EventTest> events = repository.events(ID, 2);
+
+        // Then
+        assertThat(events).containsExactly(event3);
+        assertThat(repository.events(ID, 3)).isEmpty();
+    }
+
+    @Test
+    public void should_read_all_events_in_append_order() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        repository.addEvents(singletonEvents(new EventTest(A)));
+        repository.addEvents(new Events<>(new EventTest(B), new EventTest(B)));
+        repository.addEvents(singletonEvents(new EventTest(C)));
+
+        // When
+        List<EventTest> events = repository.readAll(0, 10);
+
+        // Then
+        assertThat(events).extracting(event -> event.aggregateId).containsExactly(A, B, B, C);
+        assertThat(repository.headPosition()).isEqualTo(4);
+    }
+
+    @Test
+    public void should_read_all_events_from_position() {
+        // Given
+        EventRepository<EventTest> repository = newRepository();
+        repository.addEvents(singletonEvents(new EventTest(A)));
+        repository.addEvents(new Events<>(new EventTest(B), new EventTest(B)));
+        repository.addEvents(singletonEvents(new EventTest(C)));
+        repository.addEvents(singletonEvents(new EventTest(D)));
+
+        // When
+        List<EventTest> events = repository.readAll(2, 2);
+
+        // Then
+        assertThat(events).extracting(event -> event.aggregateId).containsExactly(B, C);
+        assertThat(repository.readAll(5, 10)).isEmpty();
+    }
+
+    private static void addIfOdd(List<Integer> sizes, int size) {
+        if (size % 2 != 0) {
+            sizes.add(size);
+        }
+    }
+
+}
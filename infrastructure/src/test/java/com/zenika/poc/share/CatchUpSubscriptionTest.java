@@ -0,0 +1,114 @@
+package com.zenika.poc.share;
+
+import com.zenika.poc.share.AbstractEventRepositoryTest.EventTest;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CatchUpSubscriptionTest {
+
+    private final EventRepository<EventTest> repository = new InMemoryEventRepository<>();
+
+    private final CheckpointStore checkpointStore = new InMemoryCheckpointStore();
+
+    private final List<Event> consumed = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void should_catch_up_from_checkpoint() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            repository.addEvents(singletonEvents(new EventTest(aggregateId(0, i))));
+        }
+        checkpointStore.saveCheckpoint("projection", 4);
+        CatchUpSubscription<EventTest> subscription = new CatchUpSubscription<>("projection", repository, checkpointStore, consumed::add,
+                                                                                4, 1, MILLISECONDS);
+
+        // When
+        while (subscription.poll() > 0) {
+        }
+
+        // Then
+        assertThat(consumed).extracting(event -> event.aggregateId)
+                            .containsExactly(aggregateId(0, 4), aggregateId(0, 5), aggregateId(0, 6), aggregateId(0, 7), aggregateId(0, 8), aggregateId(0, 9));
+        assertThat(checkpointStore.checkpoint("projection")).isEqualTo(10);
+        assertThat(subscription.isLive()).isTrue();
+    }
+
+    @Test
+    public void should_tail_new_events_after_catching_up() throws Exception {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            repository.addEvents(singletonEvents(new EventTest(aggregateId(0, i))));
+        }
+        CatchUpSubscription<EventTest> subscription = new CatchUpSubscription<>("projection", repository, checkpointStore, consumed::add,
+                                                                                16, 1, MILLISECONDS);
+
+        // When
+        subscription.start();
+        for (int i = 100; i < 200; i++) {
+            repository.addEvents(singletonEvents(new EventTest(aggregateId(0, i))));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (consumed.size() < 200 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        subscription.close();
+
+        // Then
+        assertThat(consumed).hasSize(200);
+        for (int i = 0; i < 200; i++) {
+            assertThat(consumed.get(i).aggregateId).isEqualTo(aggregateId(0, i));
+        }
+        assertThat(subscription.position()).isEqualTo(200);
+    }
+
+    @Test
+    public void should_expose_consumer_failure_and_resume_after_restart() throws Exception {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            repository.addEvents(singletonEvents(new EventTest(aggregateId(0, i))));
+        }
+        AtomicBoolean failing = new AtomicBoolean(true);
+        IllegalStateException error = new IllegalStateException("projection failed");
+        CatchUpSubscription<EventTest> subscription = new CatchUpSubscription<>("projection", repository, checkpointStore, event -> {
+            if (failing.get()) {
+                throw error;
+            }
+            consumed.add(event);
+        }, 4, 1, MILLISECONDS);
+
+        // When
+        subscription.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (subscription.failure() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        subscription.close();
+
+        // Then
+        assertThat(subscription.failure()).isSameAs(error);
+        assertThat(subscription.isLive()).isFalse();
+        assertThat(subscription.position()).isZero();
+
+        // When
+        failing.set(false);
+        subscription.start();
+        deadline = System.currentTimeMillis() + 5000;
+        while (consumed.size() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        subscription.close();
+
+        // Then
+        assertThat(subscription.failure()).isNull();
+        assertThat(consumed).hasSize(10);
+        assertThat(subscription.position()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,280 @@
+package com.zenika.poc.share;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.AggregateId.randomAggregateId;
+import static com.zenika.poc.share.ByteBuffers.AGGREGATE_ID_SIZE;
+import static com.zenika.poc.share.EventRepository.NO_STREAM;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileEventRepositoryTest extends AbstractEventRepositoryTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<FileEventRepository<EventTest>> repositories = new ArrayList<>();
+
+    @Override
+    protected EventRepository<EventTest> newRepository() {
+        return open(folder.getRoot().toPath().resolve("events-" + repositories.size()));
+    }
+
+    @After
+    public void closeRepositories() {
+        repositories.forEach(FileEventRepository::close);
+    }
+
+    @Test
+    public void should_reload_events_after_restart() {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        FileEventRepository<EventTest> repository = open(directory);
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.addEvents(new Events<>(new EventTest(ID), new EventTest(ID)));
+        repository.close();
+
+        // When
+        FileEventRepository<EventTest> reopened = open(directory);
+
+        // Then
+        assertThat(reopened.events(ID)).hasSize(3);
+        assertThat(reopened.version(ID)).isEqualTo(3);
+    }
+
+    @Test
+    public void should_roll_segments() {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        FileEventRepository<EventTest> repository = open(directory);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            repository.addEvents(singletonEvents(new EventTest(ID)));
+        }
+        repository.close();
+
+        // Then
+        assertThat(directory.resolve(Segment.fileName(1)).toFile()).exists();
+        assertThat(open(directory).events(ID)).hasSize(500);
+    }
+
+    @Test
+    public void should_grow_index_in_chunks() {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        FileEventRepository<EventTest> repository = new FileEventRepository<>(directory, EVENT_TEST_CODEC, SEGMENT_SIZE, 4);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            repository.addEvents(singletonEvents(new EventTest(i % 2 == 0 ? ID : OTHER_ID)));
+        }
+        repository.close();
+
+        // Then
+        FileEventRepository<EventTest> reopened = new FileEventRepository<>(directory, EVENT_TEST_CODEC, SEGMENT_SIZE, 4);
+        assertThat(reopened.events(ID)).hasSize(25);
+        assertThat(reopened.events(OTHER_ID, 20)).hasSize(5);
+        assertThat(reopened.readAll(10, 100)).hasSize(40);
+        reopened.addEvents(singletonEvents(new EventTest(ID)));
+        assertThat(reopened.version(ID)).isEqualTo(26);
+        reopened.close();
+    }
+
+    @Test
+    public void should_drop_torn_final_record_on_recovery() throws Exception {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        FileEventRepository<EventTest> repository = open(directory);
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.close();
+        int recordSize = Segment.HEADER_SIZE + AGGREGATE_ID_SIZE + 4 + 4;
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(Segment.fileName(0)).toFile(), "rw")) {
+            file.seek(recordSize);
+            file.writeInt(recordSize - Segment.HEADER_SIZE);
+            file.writeInt(42);
+            file.writeShort(2);
+        }
+
+        // When
+        FileEventRepository<EventTest> reopened = open(directory);
+        reopened.addEvents(singletonEvents(new EventTest(ID)));
+        reopened.close();
+
+        // Then
+        assertThat(open(directory).events(ID)).hasSize(2);
+    }
+
+    @Test
+    public void should_ignore_torn_record_length_on_recovery() throws Exception {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        FileEventRepository<EventTest> repository = open(directory);
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.close();
+        int recordSize = Segment.HEADER_SIZE + AGGREGATE_ID_SIZE + 4 + 4;
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(Segment.fileName(0)).toFile(), "rw")) {
+            file.seek(recordSize);
+            file.writeInt(Integer.MAX_VALUE);
+        }
+
+        // When
+        FileEventRepository<EventTest> reopened = open(directory);
+
+        // Then
+        assertThat(reopened.events(ID)).hasSize(1);
+    }
+
+    @Test
+    public void should_rebuild_missing_index_from_log() throws Exception {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        FileEventRepository<EventTest> repository = open(directory);
+        repository.addEvents(new Events<>(new EventTest(ID), new EventTest(ID)));
+        repository.addEvents(singletonEvents(new EventTest(OTHER_ID)));
+        repository.close();
+        Files.delete(directory.resolve(AggregateIndex.ENTRIES_FILE));
+        Files.delete(directory.resolve(AggregateIndex.AGGREGATES_FILE));
+
+        // When
+        FileEventRepository<EventTest> reopened = open(directory);
+
+        // Then
+        assertThat(reopened.events(ID)).hasSize(2);
+        assertThat(reopened.version(OTHER_ID)).isEqualTo(1);
+        assertThat(reopened.headPosition()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_index_records_appended_after_stale_index() throws Exception {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        Path backup = folder.newFolder().toPath();
+        FileEventRepository<EventTest> repository = open(directory);
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.close();
+        copy(directory, backup, AggregateIndex.ENTRIES_FILE, AggregateIndex.AGGREGATES_FILE);
+        FileEventRepository<EventTest> appended = open(directory);
+        appended.addEvents(new Events<>(new EventTest(ID), new EventTest(ID)));
+        appended.addEvents(singletonEvents(new EventTest(OTHER_ID)));
+        appended.close();
+        copy(backup, directory, AggregateIndex.ENTRIES_FILE, AggregateIndex.AGGREGATES_FILE);
+
+        // When
+        FileEventRepository<EventTest> reopened = open(directory);
+
+        // Then
+        assertThat(reopened.events(ID)).hasSize(3);
+        assertThat(reopened.events(ID, 1)).hasSize(2);
+        assertThat(reopened.version(OTHER_ID)).isEqualTo(1);
+        assertThat(reopened.readAll(0, 10)).hasSize(4);
+    }
+
+    @Test
+    public void should_rebuild_stale_aggregate_table_on_recovery() throws Exception {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        Path backup = folder.newFolder().toPath();
+        FileEventRepository<EventTest> repository = open(directory);
+        for (int i = 0; i < 3; i++) {
+            repository.addEvents(singletonEvents(new EventTest(aggregateId(0, i))));
+        }
+        repository.close();
+        copy(directory, backup, AggregateIndex.AGGREGATES_FILE);
+        FileEventRepository<EventTest> appended = open(directory);
+        for (int i = 0; i < 4; i++) {
+            appended.addEvents(singletonEvents(new EventTest(aggregateId(0, i))));
+        }
+        appended.close();
+        copy(backup, directory, AggregateIndex.AGGREGATES_FILE);
+
+        // When
+        FileEventRepository<EventTest> reopened = open(directory);
+        reopened.addEvents(singletonEvents(new EventTest(aggregateId(0, 0))), 2);
+
+        // Then
+        assertThat(reopened.version(aggregateId(0, 0))).isEqualTo(3);
+        assertThat(reopened.events(aggregateId(0, 1))).hasSize(2);
+        assertThat(reopened.version(aggregateId(0, 2))).isEqualTo(2);
+        assertThat(reopened.version(aggregateId(0, 3))).isEqualTo(1);
+        assertThat(reopened.aggregateIds()).hasSize(4);
+    }
+
+    @Test
+    public void should_rebuild_aggregate_table_ahead_of_entries_on_recovery() throws Exception {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        Path backup = folder.newFolder().toPath();
+        FileEventRepository<EventTest> repository = open(directory);
+        for (int i = 0; i < 3; i++) {
+            repository.addEvents(singletonEvents(new EventTest(aggregateId(0, i))));
+        }
+        repository.close();
+        copy(directory, backup, AggregateIndex.ENTRIES_FILE);
+        FileEventRepository<EventTest> appended = open(directory);
+        for (int i = 0; i < 4; i++) {
+            appended.addEvents(singletonEvents(new EventTest(aggregateId(0, i))));
+        }
+        appended.close();
+        copy(backup, directory, AggregateIndex.ENTRIES_FILE);
+
+        // When
+        FileEventRepository<EventTest> reopened = open(directory);
+
+        // Then
+        for (int i = 0; i < 3; i++) {
+            assertThat(reopened.events(aggregateId(0, i))).hasSize(2);
+        }
+        assertThat(reopened.version(aggregateId(0, 3))).isEqualTo(1);
+        assertThat(reopened.readAll(0, 10)).hasSize(7);
+    }
+
+    @Test
+    public void should_find_every_aggregate_after_reopening_grown_index() {
+        // Given
+        Path directory = folder.getRoot().toPath();
+        FileEventRepository<EventTest> repository = new FileEventRepository<>(directory, EVENT_TEST_CODEC);
+        for (int i = 0; i < 3000; i++) {
+            repository.addEvents(new Events<>(new EventTest(aggregateId(0, i)), new EventTest(aggregateId(0, i))));
+        }
+        repository.close();
+
+        // When
+        FileEventRepository<EventTest> reopened = new FileEventRepository<>(directory, EVENT_TEST_CODEC);
+        repositories.add(reopened);
+
+        // Then
+        assertThat(reopened.aggregateIds()).hasSize(3000);
+        for (int i = 0; i < 3000; i++) {
+            assertThat(reopened.version(aggregateId(0, i))).isEqualTo(2);
+        }
+        assertThat(reopened.version(randomAggregateId())).isEqualTo(NO_STREAM);
+    }
+
+    private static void copy(Path from, Path to, String... files) throws IOException {
+        for (String file : files) {
+            Files.copy(from.resolve(file), to.resolve(file), REPLACE_EXISTING);
+        }
+    }
+
+    private FileEventRepository<EventTest> open(Path directory) {
+        FileEventRepository<EventTest> repository = new FileEventRepository<>(directory, EVENT_TEST_CODEC, SEGMENT_SIZE);
+        repositories.add(repository);
+        return repository;
+    }
+}
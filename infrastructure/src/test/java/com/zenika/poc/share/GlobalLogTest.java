@@ -0,0 +1,56 @@
+package com.zenika.poc.share;
+
+import org.junit.Test;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GlobalLogTest {
+
+    private static final AggregateId ID = aggregateId(0, 1);
+
+    @Test
+    public void should_link_batches_left_behind_by_failed_writer() {
+        // Given
+        GlobalLog<Event> log = new GlobalLog<>();
+        Event first = new EventTest(ID);
+        Event second = new EventTest(ID);
+        EventStream<Event> stalled = EventStream.<Event>emptyStream().append(new Event[]{first});
+
+        // When
+        log.append(stalled.append(new Event[]{second}));
+
+        // Then
+        assertThat(log.read(0, 10)).containsExactly(first, second);
+        assertThat(log.head()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_link_each_batch_once() {
+        // Given
+        GlobalLog<Event> log = new GlobalLog<>();
+        Event first = new EventTest(ID);
+        Event second = new EventTest(ID);
+        EventStream<Event> stream = EventStream.<Event>emptyStream().append(new Event[]{first});
+        log.append(stream);
+
+        // When
+        log.append(stream);
+        log.append(stream.append(new Event[]{second}));
+
+        // Then
+        assertThat(log.read(0, 10)).containsExactly(first, second);
+    }
+
+    private static final class EventTest extends Event {
+
+        private EventTest(AggregateId aggregateId) {
+            super(aggregateId);
+        }
+
+        @Override
+        public String eventType() {
+            return "test";
+        }
+    }
+}
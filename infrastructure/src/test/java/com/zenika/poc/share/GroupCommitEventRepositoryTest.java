@@ -0,0 +1,203 @@
+package com.zenika.poc.share;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.catchThrowable;
+
+public class GroupCommitEventRepositoryTest extends AbstractEventRepositoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<GroupCommitEventRepository<EventTest>> repositories = new ArrayList<>();
+
+    @Override
+    protected EventRepository<EventTest> newRepository() {
+        return open(64, 1);
+    }
+
+    @After
+    public void closeRepositories() {
+        repositories.forEach(GroupCommitEventRepository::close);
+    }
+
+    @Test
+    public void should_commit_concurrent_appends_in_batches() throws Exception {
+        // Given
+        GroupCommitEventRepository<EventTest> repository = open(64, 5);
+        int threads = 16;
+        ExecutorService executor = newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            AggregateId aggregateId = aggregateId(0, t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    repository.addEvents(singletonEvents(new EventTest(aggregateId)));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        GroupCommitStatistics statistics = repository.statistics();
+        assertThat(statistics.appends).isEqualTo(threads * 20);
+        assertThat(statistics.batches).isLessThan(threads * 20);
+        assertThat(statistics.largestBatch).isGreaterThan(1).isLessThanOrEqualTo(64);
+        assertThat(statistics.maxCommitLatencyNanos).isPositive();
+    }
+
+    @Test
+    public void should_acknowledge_only_durable_events() {
+        // Given
+        GroupCommitEventRepository<EventTest> repository = open(64, 1);
+
+        // When
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.close();
+
+        // Then
+        FileEventRepository<EventTest> reopened = new FileEventRepository<>(folder.getRoot().toPath().resolve("events-0"), EVENT_TEST_CODEC);
+        assertThat(reopened.events(ID)).hasSize(1);
+        reopened.close();
+    }
+
+    @Test
+    public void should_keep_committing_after_failed_batch() {
+        // Given
+        AtomicBoolean failing = new AtomicBoolean(true);
+        FileEventRepository<EventTest> delegate = new FileEventRepository<EventTest>(folder.getRoot().toPath().resolve("failing"), EVENT_TEST_CODEC) {
+            @Override
+            void flush() {
+                if (failing.getAndSet(false)) {
+                    throw new AssertionError("disk full");
+                }
+                super.flush();
+            }
+        };
+        GroupCommitEventRepository<EventTest> repository = new GroupCommitEventRepository<>(delegate, 64, 1, MILLISECONDS);
+        repositories.add(repository);
+
+        // When
+        Throwable throwable = catchThrowable(() -> repository.addEvents(singletonEvents(new EventTest(ID))));
+        repository.addEvents(singletonEvents(new EventTest(OTHER_ID)));
+
+        // Then
+        assertThat(throwable).isInstanceOf(AssertionError.class);
+        assertThat(repository.version(OTHER_ID)).isEqualTo(1);
+    }
+
+    @Test
+    public void should_release_every_caller_when_closing() throws Exception {
+        // Given
+        GroupCommitEventRepository<EventTest> repository = open(64, 1);
+        int threads = 8;
+        ExecutorService executor = newFixedThreadPool(threads);
+        CountDownLatch started = new CountDownLatch(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            AggregateId aggregateId = aggregateId(0, t);
+            futures.add(executor.submit(() -> {
+                started.countDown();
+                try {
+                    while (true) {
+                        repository.addEvents(singletonEvents(new EventTest(aggregateId)));
+                    }
+                } catch (IllegalStateException e) {
+                    return null;
+                }
+            }));
+        }
+        started.await();
+
+        // When
+        repository.close();
+
+        // Then
+        for (Future<?> future : futures) {
+            future.get(5, SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    public void should_force_every_segment_written_by_a_batch() throws Exception {
+        // Given
+        Path directory = folder.getRoot().toPath().resolve("rolling");
+        Set<Integer> forced = ConcurrentHashMap.newKeySet();
+        FileEventRepository<EventTest> delegate = new FileEventRepository<EventTest>(directory, EVENT_TEST_CODEC, 128) {
+            @Override
+            void force(Segment segment) {
+                forced.add(segment.id);
+                super.force(segment);
+            }
+        };
+        GroupCommitEventRepository<EventTest> repository = new GroupCommitEventRepository<>(delegate, 64, 100, MILLISECONDS);
+        repositories.add(repository);
+        int threads = 16;
+        ExecutorService executor = newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            AggregateId aggregateId = aggregateId(0, t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                repository.addEvents(singletonEvents(new EventTest(aggregateId)));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        Set<Integer> written;
+        try (Stream<Path> files = Files.list(directory)) {
+            written = files.filter(Segment::isSegment).map(Segment::segmentId).collect(toSet());
+        }
+        assertThat(repository.statistics().largestBatch).isGreaterThan(1);
+        assertThat(written.size()).isGreaterThan(1);
+        assertThat(forced).containsAll(written);
+    }
+
+    private GroupCommitEventRepository<EventTest> open(int maxBatchSize, long maxLingerMillis) {
+        FileEventRepository<EventTest> delegate = new FileEventRepository<>(folder.getRoot().toPath().resolve("events-" + repositories.size()), EVENT_TEST_CODEC);
+        GroupCommitEventRepository<EventTest> repository = new GroupCommitEventRepository<>(delegate, maxBatchSize, maxLingerMillis, MILLISECONDS);
+        repositories.add(repository);
+        return repository;
+    }
+}
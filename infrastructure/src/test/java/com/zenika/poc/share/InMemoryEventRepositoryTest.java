@@ -2,50 +2,55 @@ package com.zenika.poc.share;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.zenika.poc.share.AggregateId.aggregateId;
 import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 
-public class InMemoryEventRepositoryTest {
-
-    private static class EventTest extends Event {
-
-        public EventTest(String aggregateId) {
-            super(aggregateId);
-        }
+public class InMemoryEventRepositoryTest extends AbstractEventRepositoryTest {
 
-        @Override
-        public String eventType() {
-            return "test";
-        }
-    }
-    
-    @Test
-    public void should_insert_events() {
-        // Given
-        InMemoryEventRepository<EventTest> repository = new InMemoryEventRepository<>();
-        Events<EventTest> events = singletonEvents(new EventTest("id"));
-
-        // When
-        repository.addEvents(events);
-
-        // Then
-        assertThat(repository.events("id")).isEqualTo(events);
+    @Override
+    protected EventRepository<EventTest> newRepository() {
+        return new InMemoryEventRepository<>();
     }
 
     @Test
-    public void should_insert_new_events() {
+    public void should_position_events_in_stream_order_under_concurrent_appends() throws Exception {
         // Given
-        InMemoryEventRepository<EventTest> repository = new InMemoryEventRepository<>();
-        EventTest event1 = new EventTest("id");
-        EventTest event2 = new EventTest("id");
-        repository.addEvents(singletonEvents(event1));
+        EventRepository<EventTest> repository = newRepository();
+        int threads = 8;
+        ExecutorService executor = newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
 
         // When
-        repository.addEvents(singletonEvents(event2));
-
+        for (int t = 0; t < threads; t++) {
+            AggregateId own = aggregateId(1, t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    repository.addEvents(singletonEvents(new EventTest(i % 2 == 0 ? ID : own)));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
 
         // Then
-        assertThat(repository.events("id")).containsExactly(event1, event2);
+        List<EventTest> all = repository.readAll(0, Integer.MAX_VALUE);
+        assertThat(all).hasSize(threads * 500);
+        assertThat(all.stream().filter(event -> event.aggregateId.equals(ID)).collect(toList())).isEqualTo(repository.events(ID).stream().collect(toList()));
     }
 
-}
\ No newline at end of file
+}
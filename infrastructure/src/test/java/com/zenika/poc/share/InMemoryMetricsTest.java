@@ -0,0 +1,151 @@
+package com.zenika.poc.share;
+
+import com.zenika.poc.bill.Bill;
+import com.zenika.poc.bill.BillEvent;
+import com.zenika.poc.share.AbstractEventRepositoryTest.EventTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.zenika.poc.bill.Bill.createBill;
+import static com.zenika.poc.share.AbstractEventRepositoryTest.ID;
+import static com.zenika.poc.share.Events.singletonEvents;
+import static com.zenika.poc.share.Metrics.AGGREGATE_REPLAY;
+import static com.zenika.poc.share.Metrics.AGGREGATE_REPLAYED_EVENTS;
+import static com.zenika.poc.share.Metrics.DISPATCH_CONSUME;
+import static com.zenika.poc.share.Metrics.DISPATCH_DROPPED_BATCHES;
+import static com.zenika.poc.share.Metrics.DISPATCH_QUEUE_DEPTH;
+import static com.zenika.poc.share.Metrics.REPOSITORY_APPEND;
+import static com.zenika.poc.share.Metrics.REPOSITORY_APPENDED_EVENTS;
+import static com.zenika.poc.share.Metrics.REPOSITORY_READ;
+import static com.zenika.poc.share.Metrics.REPOSITORY_READ_EVENTS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InMemoryMetricsTest {
+
+    private final InMemoryMetrics metrics = new InMemoryMetrics();
+
+    @Before
+    public void useMetrics() {
+        MetricsProvider.useMetrics(metrics);
+    }
+
+    @After
+    public void useNoMetrics() {
+        MetricsProvider.useNoMetrics();
+    }
+
+    @Test
+    public void should_compute_percentiles_within_bucket_precision() {
+        // Given
+        LockFreeHistogram histogram = new LockFreeHistogram();
+
+        // When
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        // Then
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count).isEqualTo(1000);
+        assertThat(snapshot.max).isEqualTo(1000000);
+        assertThat(snapshot.mean()).isEqualTo(500500);
+        assertThat(snapshot.percentile(50)).isBetween(500000L, 500000L + 500000 / 8);
+        assertThat(snapshot.percentile(99)).isBetween(990000L, 1000000L);
+        assertThat(snapshot.percentile(100)).isEqualTo(1000000);
+    }
+
+    @Test
+    public void should_record_concurrently_without_losing_values() throws InterruptedException {
+        // Given
+        LockFreeHistogram histogram = new LockFreeHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+
+        // When
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(histogram.snapshot().count).isEqualTo(40000);
+        assertThat(histogram.snapshot().max).isEqualTo(9999);
+    }
+
+    @Test
+    public void should_measure_repository_appends_and_reads() {
+        // Given
+        InMemoryEventRepository<EventTest> repository = new InMemoryEventRepository<>();
+
+        // When
+        repository.addEvents(new Events<>(new EventTest(ID), new EventTest(ID)));
+        repository.addEvents(singletonEvents(new EventTest(ID)));
+        repository.events(ID);
+
+        // Then
+        assertThat(metrics.snapshot(REPOSITORY_APPEND).count).isEqualTo(2);
+        assertThat(metrics.count(REPOSITORY_APPENDED_EVENTS)).isEqualTo(3);
+        assertThat(metrics.snapshot(REPOSITORY_READ).count).isEqualTo(1);
+        assertThat(metrics.count(REPOSITORY_READ_EVENTS)).isEqualTo(3);
+    }
+
+    @Test
+    public void should_measure_aggregate_replay() {
+        // Given
+        Events<BillEvent> events = createBill().events();
+
+        // When
+        Bill.loadBill(events);
+
+        // Then
+        assertThat(metrics.snapshot(AGGREGATE_REPLAY).count).isEqualTo(1);
+        assertThat(metrics.count(AGGREGATE_REPLAYED_EVENTS)).isEqualTo(1);
+    }
+
+    @Test
+    public void should_measure_dispatch_per_consumer() {
+        // Given
+        EventConsumer consumer = event -> {
+        };
+        EventDispatcher.addListener(consumer, "test");
+
+        // When
+        try {
+            EventDispatcher.sendEvents(new Events<>(new EventTest(ID), new EventTest(ID)));
+        } finally {
+            EventDispatcher.removeListener(consumer);
+        }
+
+        // Then
+        assertThat(metrics.snapshot(DISPATCH_CONSUME, consumer.getClass().getName()).count).isEqualTo(2);
+        assertThat(metrics.dump()).contains(DISPATCH_CONSUME + "[" + consumer.getClass().getName() + "]");
+    }
+
+    @Test
+    public void should_expose_dispatch_gauges_on_metrics_installed_after_async_dispatch() {
+        // Given
+        MetricsProvider.useNoMetrics();
+        EventDispatcher.dispatchAsynchronously(2, 16, SaturationPolicy.BLOCK);
+        InMemoryMetrics installed = new InMemoryMetrics();
+
+        // When
+        try {
+            MetricsProvider.useMetrics(installed);
+        } finally {
+            EventDispatcher.dispatchSynchronously();
+        }
+
+        // Then
+        assertThat(installed.dump()).contains(DISPATCH_QUEUE_DEPTH).contains(DISPATCH_DROPPED_BATCHES);
+    }
+}
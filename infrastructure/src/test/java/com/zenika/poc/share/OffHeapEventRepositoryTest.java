@@ -0,0 +1,72 @@
+package com.zenika.poc.share;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.zenika.poc.share.Events.singletonEvents;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.catchThrowable;
+
+public class OffHeapEventRepositoryTest extends AbstractEventRepositoryTest {
+
+    private static final int ARENA_SIZE = 1024;
+
+    @Override
+    protected EventRepository<EventTest> newRepository() {
+        return new OffHeapEventRepository<>(EVENT_TEST_CODEC, ARENA_SIZE);
+    }
+
+    @Test
+    public void should_read_events_across_arenas() {
+        // Given
+        OffHeapEventRepository<EventTest> repository = new OffHeapEventRepository<>(EVENT_TEST_CODEC, ARENA_SIZE);
+
+        // When
+        for (int i = 0; i < 500; i++) {
+            repository.addEvents(singletonEvents(new EventTest(i % 2 == 0 ? ID : OTHER_ID)));
+        }
+
+        // Then
+        assertThat(repository.allocatedBytes()).isGreaterThan(10L * ARENA_SIZE);
+        assertThat(repository.events(ID)).hasSize(250);
+        assertThat(repository.events(OTHER_ID, 200)).hasSize(50);
+        assertThat(repository.eventStream(ID, 100, 110).count()).isEqualTo(10);
+        assertThat(repository.readAll(100, 300)).hasSize(300);
+    }
+
+    @Test
+    public void should_read_consistently_while_clearing() throws Exception {
+        // Given
+        OffHeapEventRepository<EventTest> repository = new OffHeapEventRepository<>(EVENT_TEST_CODEC, ARENA_SIZE);
+        ExecutorService executor = newSingleThreadExecutor();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Future<?> writer = executor.submit(() -> {
+            while (running.get()) {
+                for (int i = 0; i < 100; i++) {
+                    repository.addEvents(singletonEvents(new EventTest(ID)));
+                }
+                repository.clearAllEvents();
+            }
+        });
+
+        // When
+        Throwable throwable = catchThrowable(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                repository.readAll(0, Integer.MAX_VALUE);
+                repository.events(ID);
+                repository.headPosition();
+            }
+        });
+        running.set(false);
+        writer.get();
+        executor.shutdown();
+
+        // Then
+        assertThat(throwable).isNull();
+    }
+
+}